@@ -5,6 +5,10 @@ const ProfileImageWithDefault = (props) => {
     let imageSource = defaultPicture;
     if (props.image) {
         imageSource = `/images/profile/${props.image}`;
+        if (props.width) {
+            const size = Math.ceil(props.width * (window.devicePixelRatio || 1));
+            imageSource += `?size=${size}`;
+        }
     }
     return (
         //eslint-disable-next-line
@@ -0,0 +1,93 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Remembers username/password pairs that already passed BCrypt verification.
+ * Entries are keyed on an HMAC of the credentials so raw passwords never sit in memory,
+ * and they only match while the stored password hash is unchanged.
+ */
+@Component
+public class CredentialsCache {
+
+    private final Cache<String, VerifiedCredentials> cache;
+    private final SecretKey key;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::createMac);
+
+    @Autowired
+    public CredentialsCache(AppConfiguration appConfiguration, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appConfiguration.getCredentialsCacheSize())
+                .expireAfterWrite(appConfiguration.getCredentialsCacheTtl())
+                .recordStats()
+                .build();
+        this.key = generateKey();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credentials");
+    }
+
+    public boolean isVerified(String username, String rawPassword, String passwordHash) {
+        VerifiedCredentials verified = cache.getIfPresent(hash(username, rawPassword));
+        return verified != null
+                && verified.getUsername().equals(username)
+                && verified.getPasswordHash().equals(passwordHash);
+    }
+
+    public void put(String username, String rawPassword, String passwordHash) {
+        cache.put(hash(username, rawPassword), new VerifiedCredentials(username, passwordHash));
+    }
+
+    public void invalidate(String username) {
+        cache.asMap().values().removeIf(verified -> verified.getUsername().equals(username));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private String hash(String username, String rawPassword) {
+        Mac hmac = mac.get();
+        hmac.update(username.getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        byte[] digest = hmac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private Mac createMac() {
+        try {
+            Mac hmac = Mac.getInstance("HmacSHA256");
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Value
+    private static class VerifiedCredentials {
+        String username;
+        String passwordHash;
+    }
+}
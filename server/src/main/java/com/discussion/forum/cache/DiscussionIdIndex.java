@@ -0,0 +1,206 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.DiscussionIdProjection;
+import com.discussion.forum.repository.DiscussionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index of the most recent discussion ids, globally and per username.
+ * Each list is an immutable sorted array, so readers never block and counting the ids after a given one
+ * is a binary search. Writers are serialised and copy the arrays they change: a post costs one copy of
+ * the global window (at most {@code blog.discussion-index-size} ids) plus one of its author's ids.
+ * The index only tracks ids above its floor; older ids are answered by the database, and a user whose
+ * ids have all fallen below the floor is dropped.
+ */
+@Component
+public class DiscussionIdIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final DiscussionRepository discussionRepository;
+    private final int capacity;
+
+    private volatile Window global = new Window(EMPTY, new String[0], 0);
+    private final ConcurrentMap<String, long[]> byUser = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    public DiscussionIdIndex(DiscussionRepository discussionRepository, AppConfiguration appConfiguration) {
+        this.discussionRepository = discussionRepository;
+        this.capacity = appConfiguration.getDiscussionIndexSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<DiscussionIdProjection> latest = discussionRepository.findLatestIds(PageRequest.of(0, capacity));
+        synchronized (this) {
+            Window current = global;
+            TreeMap<Long, String> owners = new TreeMap<>();
+            for (int i = 0; i < current.ids.length; i++) {
+                owners.put(current.ids[i], current.owners[i]);
+            }
+            long floor = current.floor;
+            for (DiscussionIdProjection discussion : latest) {
+                owners.put(discussion.getId(), discussion.getUsername());
+            }
+            if (latest.size() == capacity) {
+                long oldest = latest.stream().mapToLong(DiscussionIdProjection::getId).min().getAsLong();
+                floor = Math.max(floor, oldest - 1);
+            }
+            owners.headMap(floor, true).clear();
+            while (owners.size() > capacity) {
+                floor = owners.pollFirstEntry().getKey();
+            }
+
+            long[] ids = new long[owners.size()];
+            String[] usernames = new String[owners.size()];
+            Map<String, List<Long>> idsByUser = new TreeMap<>();
+            int i = 0;
+            for (Map.Entry<Long, String> entry : owners.entrySet()) {
+                ids[i] = entry.getKey();
+                usernames[i++] = entry.getValue();
+                if (entry.getValue() != null) {
+                    idsByUser.computeIfAbsent(entry.getValue(), key -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            global = new Window(ids, usernames, floor);
+            byUser.clear();
+            idsByUser.forEach((username, userIds) -> byUser.put(username, userIds.stream().mapToLong(Long::longValue).toArray()));
+        }
+        ready = true;
+    }
+
+    public synchronized void add(long id, String username) {
+        Window current = global;
+        int position = Arrays.binarySearch(current.ids, id);
+        if (id <= current.floor || position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        long[] ids = new long[current.ids.length + 1];
+        String[] owners = new String[ids.length];
+        System.arraycopy(current.ids, 0, ids, 0, insertAt);
+        System.arraycopy(current.owners, 0, owners, 0, insertAt);
+        ids[insertAt] = id;
+        owners[insertAt] = username;
+        System.arraycopy(current.ids, insertAt, ids, insertAt + 1, current.ids.length - insertAt);
+        System.arraycopy(current.owners, insertAt, owners, insertAt + 1, current.ids.length - insertAt);
+        if (username != null) {
+            byUser.compute(username, (key, userIds) -> insert(userIds == null ? EMPTY : userIds, id));
+        }
+        if (ids.length <= capacity) {
+            global = new Window(ids, owners, current.floor);
+            return;
+        }
+        long floor = ids[0];
+        global = new Window(Arrays.copyOfRange(ids, 1, ids.length), Arrays.copyOfRange(owners, 1, owners.length), floor);
+        if (owners[0] != null) {
+            byUser.computeIfPresent(owners[0], (key, userIds) -> nullIfEmpty(trim(userIds, floor)));
+        }
+    }
+
+    public synchronized void remove(long id, String username) {
+        Window current = global;
+        int position = Arrays.binarySearch(current.ids, id);
+        if (position >= 0) {
+            global = new Window(delete(current.ids, position), delete(current.owners, position), current.floor);
+        }
+        if (username != null) {
+            byUser.computeIfPresent(username, (key, userIds) -> {
+                int userPosition = Arrays.binarySearch(userIds, id);
+                return userPosition < 0 ? userIds : nullIfEmpty(delete(userIds, userPosition));
+            });
+        }
+    }
+
+    /**
+     * Counts the discussions newer than {@code id}, optionally restricted to one user.
+     * Returns empty when the index cannot answer, i.e. before it is loaded or when
+     * {@code id} is older than the tracked window.
+     */
+    public OptionalLong countAfter(long id, String username) {
+        Window window = global;
+        if (!ready || id < window.floor) {
+            return OptionalLong.empty();
+        }
+        if (username == null) {
+            return OptionalLong.of(countAfter(window.ids, id));
+        }
+        long[] userIds = byUser.get(username);
+        return OptionalLong.of(userIds == null ? 0 : countAfter(userIds, id));
+    }
+
+    int getTrackedUserCount() {
+        return byUser.size();
+    }
+
+    private static int countAfter(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        int firstGreater = position >= 0 ? position + 1 : -position - 1;
+        return ids.length - firstGreater;
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertAt = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return result;
+    }
+
+    private static long[] delete(long[] ids, int position) {
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+        return result;
+    }
+
+    private static String[] delete(String[] owners, int position) {
+        String[] result = new String[owners.length - 1];
+        System.arraycopy(owners, 0, result, 0, position);
+        System.arraycopy(owners, position + 1, result, position, owners.length - position - 1);
+        return result;
+    }
+
+    private static long[] trim(long[] ids, long floor) {
+        int position = Arrays.binarySearch(ids, floor);
+        int firstAbove = position >= 0 ? position + 1 : -position - 1;
+        return firstAbove == 0 ? ids : Arrays.copyOfRange(ids, firstAbove, ids.length);
+    }
+
+    private static long[] nullIfEmpty(long[] ids) {
+        return ids.length == 0 ? null : ids;
+    }
+
+    private static final class Window {
+        final long[] ids;
+        final String[] owners;
+        final long floor;
+
+        Window(long[] ids, String[] owners, long floor) {
+            this.ids = ids;
+            this.owners = owners;
+            this.floor = floor;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.domain.vm.DiscussionView;
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.DiscussionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The newest discussions of the global feed, kept in memory as views ordered by id descending.
+ * Writers are serialised and publish an immutable snapshot, so readers never block.
+ * Saves are applied before the request returns, which lets an author see their own post right away.
+ * Views are loaded before the writer lock is taken, so a post never waits on another post's query.
+ * Author updates and removals bump a version; a post that sees it moved while loading reloads its view under the lock.
+ */
+@Component
+public class HotFeed {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+
+    private final DiscussionRepository discussionRepository;
+    private final int capacity;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(new DiscussionView[0], 0));
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile boolean ready;
+
+    private volatile long version;
+
+    @Autowired
+    public HotFeed(DiscussionRepository discussionRepository, AppConfiguration appConfiguration, MeterRegistry meterRegistry) {
+        this.discussionRepository = discussionRepository;
+        this.capacity = appConfiguration.getHotFeedSize();
+        this.hits = meterRegistry.counter("discussions.hotfeed.requests", "result", "hit");
+        this.misses = meterRegistry.counter("discussions.hotfeed.requests", "result", "miss");
+        Gauge.builder("discussions.hotfeed.hit.ratio", this, HotFeed::getHitRatio).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        if (capacity <= 0) {
+            return;
+        }
+        List<DiscussionView> latest = discussionRepository.findViewsNewestFirst(null, capacity);
+        long total = discussionRepository.count();
+        snapshot.set(new Snapshot(latest.toArray(new DiscussionView[0]), Math.max(total, latest.size())));
+        version++;
+        ready = true;
+    }
+
+    public void add(long id) {
+        if (!ready) {
+            return;
+        }
+        long seen = version;
+        Optional<DiscussionView> view = discussionRepository.findViewById(id);
+        synchronized (this) {
+            if (version != seen) {
+                view = discussionRepository.findViewById(id);
+            }
+            if (!view.isPresent()) {
+                return;
+            }
+            Snapshot current = snapshot.get();
+            int index = current.indexOf(id);
+            if (index >= 0) {
+                return;
+            }
+            int position = -index - 1;
+            if (position >= capacity) {
+                snapshot.set(new Snapshot(current.items, current.total + 1));
+                return;
+            }
+            int length = Math.min(current.items.length + 1, capacity);
+            DiscussionView[] items = new DiscussionView[length];
+            System.arraycopy(current.items, 0, items, 0, position);
+            items[position] = view.get();
+            System.arraycopy(current.items, position, items, position + 1, length - position - 1);
+            snapshot.set(new Snapshot(items, current.total + 1));
+        }
+    }
+
+    /**
+     * Replaces the author part of every cached discussion written by this user, after a profile update.
+     */
+    public synchronized void updateAuthor(UserVM author) {
+        if (!ready) {
+            return;
+        }
+        version++;
+        Snapshot current = snapshot.get();
+        DiscussionView.UserView user = new DiscussionView.UserView(author.getId(), author.getUsername(),
+                author.getDisplayName(), author.getImage());
+        DiscussionView[] items = null;
+        for (int i = 0; i < current.items.length; i++) {
+            if (current.items[i].getUser().getId() == author.getId()) {
+                if (items == null) {
+                    items = current.items.clone();
+                }
+                items[i] = current.items[i].withUser(user);
+            }
+        }
+        if (items != null) {
+            snapshot.set(new Snapshot(items, current.total));
+        }
+    }
+
+    public synchronized void remove(long id) {
+        if (!ready) {
+            return;
+        }
+        version++;
+        Snapshot current = snapshot.get();
+        int index = current.indexOf(id);
+        if (index < 0) {
+            snapshot.set(new Snapshot(current.items, Math.max(current.total - 1, current.items.length)));
+            return;
+        }
+        if (current.total > current.items.length) {
+            reload();
+            return;
+        }
+        DiscussionView[] items = new DiscussionView[current.items.length - 1];
+        System.arraycopy(current.items, 0, items, 0, index);
+        System.arraycopy(current.items, index + 1, items, index, items.length - index);
+        snapshot.set(new Snapshot(items, current.total - 1));
+    }
+
+    public Optional<Page<DiscussionView>> getPage(Pageable pageable) {
+        Snapshot current = snapshot.get();
+        if (!ready || pageable.isUnpaged() || !NEWEST_FIRST.equals(pageable.getSort())) {
+            misses.increment();
+            return Optional.empty();
+        }
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (end > current.items.length && current.items.length < current.total) {
+            misses.increment();
+            return Optional.empty();
+        }
+        int from = (int) Math.min(pageable.getOffset(), current.items.length);
+        int to = (int) Math.min(end, current.items.length);
+        hits.increment();
+        return Optional.of(new PageImpl<>(Arrays.asList(current.items).subList(from, to), pageable, current.total));
+    }
+
+    public double getHitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests == 0 ? 0 : hits.count() / requests;
+    }
+
+    private static class Snapshot {
+        final DiscussionView[] items;
+        final long total;
+
+        Snapshot(DiscussionView[] items, long total) {
+            this.items = items;
+            this.total = total;
+        }
+
+        int indexOf(long id) {
+            int low = 0;
+            int high = items.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = items[mid].getId();
+                if (midId > id) {
+                    low = mid + 1;
+                } else if (midId < id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.domain.vm.CursorPageVM;
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.utils.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Every user's public profile, kept in memory as an immutable array ordered by id.
+ * Writers are serialised and publish a new array, so readers never block. Pages skip the
+ * logged-in user while reading, so every caller reads the same snapshot whoever they are.
+ */
+@Component
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<UserVM[]> snapshot = new AtomicReference<>(new UserVM[0]);
+
+    private volatile boolean ready;
+
+    @Autowired
+    public UserDirectory(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        UserVM[] users = transactionTemplate.execute(status -> {
+            try (Stream<UserVM> profiles = userRepository.streamProfilesOrderById()) {
+                return profiles.toArray(UserVM[]::new);
+            }
+        });
+        snapshot.set(users);
+        ready = true;
+    }
+
+    public synchronized void put(UserVM user) {
+        if (!ready) {
+            return;
+        }
+        UserVM[] current = snapshot.get();
+        int index = indexOf(current, user.getId());
+        UserVM[] users;
+        if (index >= 0) {
+            users = current.clone();
+            users[index] = user;
+        } else {
+            int position = -index - 1;
+            users = new UserVM[current.length + 1];
+            System.arraycopy(current, 0, users, 0, position);
+            users[position] = user;
+            System.arraycopy(current, position, users, position + 1, current.length - position);
+        }
+        snapshot.set(users);
+    }
+
+    public CursorPageVM<UserVM> getFeed(String cursor, Long excludedId, int size) {
+        Long after = Cursor.decode(cursor);
+        UserVM[] users = current();
+        int index = 0;
+        if (after != null) {
+            int found = indexOf(users, after);
+            index = found >= 0 ? found + 1 : -found - 1;
+        }
+        List<UserVM> content = new ArrayList<>(size);
+        for (; index < users.length && content.size() < size; index++) {
+            if (!isExcluded(users[index], excludedId)) {
+                content.add(users[index]);
+            }
+        }
+        boolean more = index < users.length - 1 || (index == users.length - 1 && !isExcluded(users[index], excludedId));
+        String nextCursor = more && !content.isEmpty() ? Cursor.encode(content.get(content.size() - 1).getId()) : null;
+        return new CursorPageVM<>(content, size, nextCursor);
+    }
+
+    /**
+     * Serves offset pages in id order. Pages with an explicit sort are left to the database.
+     */
+    public Optional<Page<UserVM>> getPage(Long excludedId, Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        UserVM[] users = current();
+        int excluded = excludedId == null ? -1 : indexOf(users, excludedId);
+        int total = excluded >= 0 ? users.length - 1 : users.length;
+        long from = Math.min(pageable.getOffset(), total);
+        long to = Math.min(pageable.getOffset() + pageable.getPageSize(), total);
+        List<UserVM> content = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            content.add(users[(int) (excluded >= 0 && i >= excluded ? i + 1 : i)]);
+        }
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    private UserVM[] current() {
+        if (!ready) {
+            reload();
+        }
+        return snapshot.get();
+    }
+
+    private static boolean isExcluded(UserVM user, Long excludedId) {
+        return excludedId != null && user.getId() == excludedId;
+    }
+
+    private static int indexOf(UserVM[] users, long id) {
+        int low = 0;
+        int high = users.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = users[mid].getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps public user profiles in memory, once by username and once by id.
+ * A miss is loaded inside the cache's own compute, so concurrent misses for the same key share one query,
+ * and an eviction that races a load waits for it and then removes what it stored.
+ * Unknown users are not remembered.
+ */
+@Component
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserVM> byUsername;
+    private final Cache<Long, UserVM> byId;
+
+    @Autowired
+    public UserProfileCache(UserRepository userRepository, AppConfiguration appConfiguration, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(appConfiguration.getUserProfileCacheSize())
+                .expireAfterWrite(appConfiguration.getUserProfileCacheTtl())
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(appConfiguration.getUserProfileCacheSize())
+                .expireAfterWrite(appConfiguration.getUserProfileCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "userProfiles");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "userProfilesById");
+    }
+
+    public Optional<UserVM> getByUsername(String username) {
+        return Optional.ofNullable(byUsername.get(username, key -> userRepository.findByUsername(key).map(UserVM::new).orElse(null)));
+    }
+
+    public Optional<UserVM> getById(long id) {
+        return Optional.ofNullable(byId.get(id, key -> userRepository.findById(key).map(UserVM::new).orElse(null)));
+    }
+
+    /**
+     * Resolves a batch of ids in their original order, loading all misses with a single query.
+     * Ids of users that no longer exist are skipped.
+     */
+    public List<UserVM> getAllById(List<Long> ids) {
+        Map<Long, UserVM> profiles = byId.getAll(ids, this::loadAll);
+        return ids.stream().map(profiles::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public void evict(String username, long id) {
+        byUsername.invalidate(username);
+        byId.invalidate(id);
+    }
+
+    public void evictAll() {
+        byUsername.invalidateAll();
+        byId.invalidateAll();
+    }
+
+    private Map<Long, UserVM> loadAll(Iterable<? extends Long> ids) {
+        List<Long> missing = new ArrayList<>();
+        ids.forEach(missing::add);
+        return userRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(User::getId, UserVM::new, (first, second) -> first));
+    }
+}
@@ -0,0 +1,193 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Prefix search over usernames and display names.
+ * Every user contributes a key for their username and one for each word of their display name,
+ * lower-cased and stripped of accents. Username keys and display-name keys live in two sorted arrays, so a burst
+ * of display-name matches cannot crowd a username out of the bounded scan. A lookup is a binary search to the
+ * first key with the prefix in each array followed by a bounded scan. Writers are serialised and publish new arrays.
+ */
+@Component
+public class UserSuggestionIndex {
+
+    private static final int MAX_CANDIDATES = 256;
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORDS = Pattern.compile("\\s+");
+
+    private static final Comparator<Entry> KEY_ORDER = Comparator.comparing((Entry entry) -> entry.key)
+            .thenComparingLong(entry -> entry.user.getId());
+
+    private static final Comparator<Entry> RANK = Comparator.comparingInt((Entry entry) -> entry.key.length())
+            .thenComparing(entry -> entry.key)
+            .thenComparingLong(entry -> entry.user.getId());
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(new Entry[0], new Entry[0]));
+
+    private volatile boolean ready;
+
+    @Autowired
+    public UserSuggestionIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<Entry> entries = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserVM> profiles = userRepository.streamProfilesOrderById()) {
+                profiles.forEach(user -> entries.addAll(entriesOf(user)));
+            }
+        });
+        entries.sort(KEY_ORDER);
+        snapshot.set(Snapshot.of(entries));
+        ready = true;
+    }
+
+    public synchronized void put(UserVM user) {
+        if (!ready) {
+            return;
+        }
+        Snapshot current = snapshot.get();
+        List<Entry> entries = new ArrayList<>(current.usernames.length + current.words.length + 4);
+        for (Entry entry : current.usernames) {
+            if (entry.user.getId() != user.getId()) {
+                entries.add(entry);
+            }
+        }
+        for (Entry entry : current.words) {
+            if (entry.user.getId() != user.getId()) {
+                entries.add(entry);
+            }
+        }
+        for (Entry entry : entriesOf(user)) {
+            int position = Collections.binarySearch(entries, entry, KEY_ORDER);
+            entries.add(position < 0 ? -position - 1 : position, entry);
+        }
+        snapshot.set(Snapshot.of(entries));
+    }
+
+    /**
+     * Returns up to {@code size} users with a username or display-name word starting with {@code query}.
+     * Username matches come first, then display-name matches, each ordered by shorter keys.
+     * Each kind of key contributes at most {@link #MAX_CANDIDATES} candidates.
+     */
+    public List<UserVM> suggest(String query, int size) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || size <= 0) {
+            return Collections.emptyList();
+        }
+        if (!ready) {
+            reload();
+        }
+        Snapshot current = snapshot.get();
+        Map<Long, UserVM> suggestions = new LinkedHashMap<>();
+        collect(current.usernames, prefix, size, suggestions);
+        collect(current.words, prefix, size, suggestions);
+        return new ArrayList<>(suggestions.values());
+    }
+
+    private static void collect(Entry[] entries, String prefix, int size, Map<Long, UserVM> suggestions) {
+        if (suggestions.size() == size) {
+            return;
+        }
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key.compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Entry> candidates = new ArrayList<>();
+        for (int i = low; i < entries.length && candidates.size() < MAX_CANDIDATES && entries[i].key.startsWith(prefix); i++) {
+            candidates.add(entries[i]);
+        }
+        candidates.sort(RANK);
+        for (Entry candidate : candidates) {
+            if (suggestions.size() == size) {
+                break;
+            }
+            suggestions.putIfAbsent(candidate.user.getId(), candidate.user);
+        }
+    }
+
+    private static List<Entry> entriesOf(UserVM user) {
+        List<Entry> entries = new ArrayList<>();
+        if (user.getUsername() != null) {
+            entries.add(new Entry(normalize(user.getUsername()), user, true));
+        }
+        if (user.getDisplayName() != null) {
+            Arrays.stream(WORDS.split(normalize(user.getDisplayName())))
+                    .filter(word -> !word.isEmpty())
+                    .distinct()
+                    .forEach(word -> entries.add(new Entry(word, user, false)));
+        }
+        return entries;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static class Snapshot {
+        final Entry[] usernames;
+        final Entry[] words;
+
+        Snapshot(Entry[] usernames, Entry[] words) {
+            this.usernames = usernames;
+            this.words = words;
+        }
+
+        /** Splits entries already in key order into the username and display-name arrays. */
+        static Snapshot of(List<Entry> sorted) {
+            return new Snapshot(
+                    sorted.stream().filter(entry -> entry.username).toArray(Entry[]::new),
+                    sorted.stream().filter(entry -> !entry.username).toArray(Entry[]::new));
+        }
+    }
+
+    private static class Entry {
+        final String key;
+        final UserVM user;
+        final boolean username;
+
+        Entry(String key, UserVM user, boolean username) {
+            this.key = key;
+            this.user = user;
+            this.username = username;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * A Bloom filter over every username, so lookups of names that were never registered skip the database.
+ * It is filled by streaming the user table once the application is ready and by {@link #add} on every save,
+ * and answers "maybe" for everything until then. Names are never removed; a deleted user only costs a false positive.
+ * The unique index on {@code user.username} stays the source of truth.
+ */
+@Component
+public class UsernameFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private final Counter filtered;
+    private final Counter passed;
+    private final Counter falsePositives;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public UsernameFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                          AppConfiguration appConfiguration, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        long expected = Math.max(1, appConfiguration.getUsernameFilterExpectedUsers());
+        double rate = appConfiguration.getUsernameFilterFalsePositiveRate();
+        long optimalBits = (long) Math.ceil(-expected * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+        this.filtered = meterRegistry.counter("usernames.filter.requests", "result", "absent");
+        this.passed = meterRegistry.counter("usernames.filter.requests", "result", "maybe");
+        this.falsePositives = meterRegistry.counter("usernames.filter.false.positives");
+        Gauge.builder("usernames.filter.false.positive.rate", this, UsernameFilter::getFalsePositiveRate).register(meterRegistry);
+        Gauge.builder("usernames.filter.expected.false.positive.rate", this, UsernameFilter::getExpectedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                usernames.forEach(this::add);
+            }
+        });
+        ready = true;
+    }
+
+    public void add(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+            if ((current & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns false only when the name was certainly never added. Callers that then find
+     * nothing in the database report it through {@link #recordFalsePositive()}.
+     */
+    public boolean mightContain(String username) {
+        if (!ready || username == null) {
+            return true;
+        }
+        if (contains(username)) {
+            passed.increment();
+            return true;
+        }
+        filtered.increment();
+        return false;
+    }
+
+    public void recordFalsePositive() {
+        if (ready) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * The share of unknown names the filter let through, as measured from lookups since startup.
+     */
+    public double getFalsePositiveRate() {
+        double negatives = falsePositives.count() + filtered.count();
+        return negatives == 0 ? 0 : falsePositives.count() / negatives;
+    }
+
+    /**
+     * The rate predicted from how full the filter is.
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+    }
+
+    boolean contains(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
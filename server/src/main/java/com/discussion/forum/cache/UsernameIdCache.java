@@ -0,0 +1,67 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+/**
+ * Resolves usernames to user ids without loading the user.
+ * Usernames never change, so found ids are kept until evicted by size; unknown names are
+ * remembered for a short time so repeated lookups of missing users stay off the database.
+ */
+@Component
+public class UsernameIdCache {
+
+    private static final long NOT_FOUND = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> cache;
+
+    @Autowired
+    public UsernameIdCache(UserRepository userRepository, AppConfiguration appConfiguration, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        long negativeTtl = appConfiguration.getUsernameCacheNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appConfiguration.getUsernameCacheSize())
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String username, Long id, long currentTime) {
+                        return id == NOT_FOUND ? negativeTtl : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String username, Long id, long currentTime, long currentDuration) {
+                        return expireAfterCreate(username, id, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String username, Long id, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "usernames");
+    }
+
+    public OptionalLong getId(String username) {
+        long id = cache.get(username, key -> userRepository.findIdByUsername(key).orElse(NOT_FOUND));
+        return id == NOT_FOUND ? OptionalLong.empty() : OptionalLong.of(id);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
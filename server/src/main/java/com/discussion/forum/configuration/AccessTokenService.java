@@ -0,0 +1,103 @@
+package com.discussion.forum.configuration;
+
+import com.discussion.forum.domain.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies compact signed access tokens of the form {@code payload.signature},
+ * where the payload is {@code id:expiry:username} and the signature an HMAC-SHA256 over it.
+ * Verification needs neither the database nor BCrypt.
+ */
+@Component
+public class AccessTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKey key;
+    private final Duration ttl;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::createMac);
+
+    @Autowired
+    public AccessTokenService(AppConfiguration appConfiguration) {
+        this.key = StringUtils.hasText(appConfiguration.getTokenSecret())
+                ? new SecretKeySpec(Base64.getDecoder().decode(appConfiguration.getTokenSecret()), ALGORITHM)
+                : generateKey();
+        this.ttl = appConfiguration.getTokenTtl();
+    }
+
+    public String createToken(AuthenticatedUser user) {
+        long expiry = System.currentTimeMillis() / 1000 + ttl.getSeconds();
+        String payload = user.getId() + ":" + expiry + ":" + user.getUsername();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(sign(payloadBytes));
+    }
+
+    public Optional<AuthenticatedUser> verifyToken(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payloadBytes = decoder.decode(token.substring(0, separator));
+            signature = decoder.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            return Optional.empty();
+        }
+
+        String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(":", 3);
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            if (Long.parseLong(parts[1]) < System.currentTimeMillis() / 1000) {
+                return Optional.empty();
+            }
+            return Optional.of(new AuthenticatedUser(Long.parseLong(parts[0]), parts[2], null, null));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return mac.get().doFinal(payload);
+    }
+
+    private Mac createMac() {
+        try {
+            Mac hmac = Mac.getInstance(ALGORITHM);
+            hmac.init(key);
+            return hmac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance(ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
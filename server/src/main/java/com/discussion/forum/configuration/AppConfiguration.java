@@ -3,6 +3,10 @@ package com.discussion.forum.configuration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = "blog")
@@ -11,6 +15,49 @@ public class AppConfiguration {
     String uploadPath;
     String profileImagesFolder = "profile";
     String attachmentsFolder = "attachments";
+    long credentialsCacheSize = 10_000;
+    Duration credentialsCacheTtl = Duration.ofMinutes(10);
+    String tokenSecret;
+    Duration tokenTtl = Duration.ofHours(12);
+    int discussionIndexSize = 50_000;
+    Duration streamTimeout = Duration.ofMinutes(30);
+    int streamBufferSize = 16;
+    int streamDispatchThreads = 4;
+    Duration streamWriteTimeout = Duration.ofSeconds(5);
+    int streamMaxStalledWrites = 256;
+
+    int hotFeedSize = 100;
+
+    long usernameCacheSize = 100_000;
+    Duration usernameCacheNegativeTtl = Duration.ofSeconds(30);
+    long usernameFilterExpectedUsers = 1_000_000;
+    double usernameFilterFalsePositiveRate = 0.01;
+
+    long userProfileCacheSize = 10_000;
+    Duration userProfileCacheTtl = Duration.ofMinutes(10);
+
+    DataSize maxAttachmentSize = DataSize.ofMegabytes(10);
+
+    List<Integer> imageVariantSizes = List.of(32, 64, 256);
+    int imageVariantThreads = 2;
+    int imageVariantQueueSize = 100;
+    long imageVariantMaxPixels = 25_000_000;
+
+    int storageMigrationThreads = 4;
+
+    Duration orphanAttachmentAge = Duration.ofHours(1);
+    Duration orphanCleanupBudget = Duration.ofMinutes(5);
+    int orphanCleanupBatchSize = 500;
+
+    String deletionQueuePath;
+    Duration deletionQueueInterval = Duration.ofSeconds(1);
+    int deletionQueueBatchSize = 100;
+    int deletionQueueMaxAttempts = 8;
+    Duration deletionQueueRetryDelay = Duration.ofSeconds(5);
+
+    String chunkedUploadPath;
+    Duration chunkedUploadTtl = Duration.ofHours(24);
+    int maxChunkedUploadsPerUser = 5;
 
     public String getFullProfileImagesPath() {
         return this.uploadPath + "/" + this.profileImagesFolder;
@@ -19,4 +66,12 @@ public class AppConfiguration {
     public String getFullAttachmentsPath() {
         return this.uploadPath + "/" + this.attachmentsFolder;
     }
+
+    public String getDeletionQueuePath() {
+        return this.deletionQueuePath != null ? this.deletionQueuePath : this.uploadPath + "/.deletion-queue.log";
+    }
+
+    public String getChunkedUploadPath() {
+        return this.chunkedUploadPath != null ? this.chunkedUploadPath : this.uploadPath + "/.chunked-uploads";
+    }
 }
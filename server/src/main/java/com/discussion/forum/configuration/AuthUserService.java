@@ -1,5 +1,6 @@
 package com.discussion.forum.configuration;
 
+import com.discussion.forum.cache.UsernameFilter;
 import com.discussion.forum.domain.User;
 import com.discussion.forum.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,10 +17,17 @@ public class AuthUserService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UsernameFilter usernameFilter;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!usernameFilter.mightContain(username)) {
+            throw new UsernameNotFoundException("User not found");
+        }
         Optional<User> user = userRepository.findByUsername(username);
         if(!user.isPresent()) {
+            usernameFilter.recordFalsePositive();
             throw new UsernameNotFoundException("User not found");
         }
         return user.get();
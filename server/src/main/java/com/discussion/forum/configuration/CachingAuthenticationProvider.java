@@ -0,0 +1,42 @@
+package com.discussion.forum.configuration;
+
+import com.discussion.forum.cache.CredentialsCache;
+import com.discussion.forum.domain.AuthenticatedUser;
+import com.discussion.forum.domain.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final CredentialsCache credentialsCache;
+
+    public CachingAuthenticationProvider(CredentialsCache credentialsCache) {
+        this.credentialsCache = credentialsCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+        String rawPassword = authentication.getCredentials().toString();
+        if (credentialsCache.isVerified(userDetails.getUsername(), rawPassword, userDetails.getPassword())) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        credentialsCache.put(userDetails.getUsername(), rawPassword, userDetails.getPassword());
+    }
+
+    /**
+     * Keeps the loaded entity out of the security context, replacing it with an {@link AuthenticatedUser}.
+     */
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        Object authenticated = user instanceof User ? AuthenticatedUser.of((User) user) : principal;
+        return super.createSuccessAuthentication(authenticated, authentication, user);
+    }
+}
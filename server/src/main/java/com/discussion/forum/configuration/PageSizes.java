@@ -0,0 +1,29 @@
+package com.discussion.forum.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.web.SpringDataWebProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page size limits for the cursor endpoints, taken from {@code spring.data.web.pageable} so they
+ * stay the same as the ones applied to {@link org.springframework.data.domain.Pageable} parameters.
+ */
+@Component
+public class PageSizes {
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    @Autowired
+    public PageSizes(SpringDataWebProperties springDataWebProperties) {
+        this.defaultPageSize = springDataWebProperties.getPageable().getDefaultPageSize();
+        this.maxPageSize = springDataWebProperties.getPageable().getMaxPageSize();
+    }
+
+    public int clamp(Integer size) {
+        if (size == null || size < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
@@ -0,0 +1,83 @@
+package com.discussion.forum.configuration;
+
+import com.discussion.forum.repository.DiscussionRepository;
+import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.discussion.forum.repository.DiscussionSpecifications.idGreaterThan;
+import static com.discussion.forum.repository.DiscussionSpecifications.idLessThan;
+import static com.discussion.forum.repository.DiscussionSpecifications.userIdIs;
+
+/**
+ * Fails startup when one of the hot repository queries would be answered by a full table scan,
+ * so a missing or dropped index shows up before traffic does.
+ * Each query is run once with probe arguments, and the SQL Hibernate actually generated for it is explained.
+ * The scan is recognised by H2's {@code tableScan} plan marker, so the check is skipped on other databases.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.verify-query-plans", havingValue = "true", matchIfMissing = true)
+public class QueryPlanVerifier {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "id");
+    // a later page, so Spring Data runs the count query as well
+    private static final Pageable PAGE = PageRequest.of(1, 10, NEWEST_FIRST);
+
+    private final StatementCapture statementCapture;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Runnable> probes = new LinkedHashMap<>();
+
+    @Autowired
+    public QueryPlanVerifier(StatementCapture statementCapture, JdbcTemplate jdbcTemplate, UserRepository userRepository,
+                             DiscussionRepository discussionRepository, FileAttachmentRepository fileAttachmentRepository) {
+        this.statementCapture = statementCapture;
+        this.jdbcTemplate = jdbcTemplate;
+        probes.put("UserRepository.findByUsername", () -> userRepository.findByUsername("probe"));
+        probes.put("DiscussionRepository.findByUserId", () -> discussionRepository.findByUserId(1, PAGE));
+        probes.put("DiscussionRepository.findViewsByUserId", () -> discussionRepository.findViewsByUserId(1, PAGE));
+        probes.put("DiscussionRepository.findViewsNewestFirst", () ->
+                discussionRepository.findViewsNewestFirst(userIdIs(1).and(idLessThan(100)), 10));
+        probes.put("DiscussionService.getOldDiscussions", () -> discussionRepository.findAll(idLessThan(100), PAGE));
+        probes.put("DiscussionService.getOldDiscussions(username)", () ->
+                discussionRepository.findAll(userIdIs(1).and(idLessThan(100)), PAGE));
+        probes.put("DiscussionService.getNewDiscussions", () -> discussionRepository.findAll(idGreaterThan(100), NEWEST_FIRST));
+        probes.put("DiscussionService.getNewDiscussions(username)", () ->
+                discussionRepository.findAll(userIdIs(1).and(idGreaterThan(100)), NEWEST_FIRST));
+        probes.put("DiscussionService.getNewDiscussionsCount(username)", () ->
+                discussionRepository.count(userIdIs(1).and(idGreaterThan(100))));
+        probes.put("FileAttachmentRepository.findByDateBeforeAndDiscussionIsNull", () ->
+                fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(new Date(), 0, PageRequest.of(0, 500)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        String database = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(database)) {
+            return;
+        }
+        probes.forEach((name, probe) -> {
+            for (String sql : statementCapture.capture(probe)) {
+                List<String> plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                        (resultSet, row) -> resultSet.getString(1));
+                String explained = String.join("\n", plan);
+                if (explained.contains("tableScan")) {
+                    throw new IllegalStateException("Query " + name + " runs a full table scan:\n" + explained);
+                }
+            }
+        });
+    }
+}
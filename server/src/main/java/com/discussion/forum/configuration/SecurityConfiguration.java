@@ -1,16 +1,19 @@
 package com.discussion.forum.configuration;
 
+import com.discussion.forum.cache.CredentialsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import static com.discussion.forum.utils.Constant.*;
 
@@ -21,6 +24,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     @Autowired
     AuthUserService authUserService;
 
+    @Autowired
+    CredentialsCache credentialsCache;
+
+    @Autowired
+    AccessTokenService accessTokenService;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.csrf().disable();
@@ -28,21 +37,39 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         http.headers().frameOptions().sameOrigin();
 
         http.httpBasic().authenticationEntryPoint(new BasicAuthenticationEntryPoint());
+        http.addFilterBefore(new TokenAuthenticationFilter(accessTokenService), BasicAuthenticationFilter.class);
 
         http.authorizeRequests()
+                .antMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                .antMatchers("/actuator/**").authenticated()
                 .antMatchers(HttpMethod.POST, API_1_0_LOGIN).authenticated()
                 .antMatchers(HttpMethod.PUT, API_1_0_USERS + "/{id:[0-9]+}").authenticated()
                 .antMatchers(HttpMethod.POST, API_1_0_DISCUSSION + "/**").authenticated()
                 .antMatchers(HttpMethod.DELETE, API_1_0_DISCUSSION + "/{id:[0-9]+}").authenticated()
+                .antMatchers(HttpMethod.GET, API_1_0_DISCUSSION + "/upload/**").authenticated()
+                .antMatchers(HttpMethod.PUT, API_1_0_DISCUSSION + "/upload/**").authenticated()
                 .and()
                 .authorizeRequests().anyRequest().permitAll();
 
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
     }
 
+    @Override
+    public void configure(WebSecurity web) {
+        web.ignoring().antMatchers(HttpMethod.GET, "/images/**").antMatchers(HttpMethod.HEAD, "/images/**");
+    }
+
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(authUserService).passwordEncoder(passwordEncoder());
+        auth.authenticationProvider(authenticationProvider());
+    }
+
+    @Bean
+    public CachingAuthenticationProvider authenticationProvider() {
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(credentialsCache);
+        provider.setUserDetailsService(authUserService);
+        provider.setPasswordEncoder(passwordEncoder());
+        return provider;
     }
 
     @Bean()
@@ -0,0 +1,65 @@
+package com.discussion.forum.configuration;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread while {@link #capture} runs.
+ * Registers itself as the statement inspector and hands every statement on to an inspector
+ * configured through {@code spring.jpa.properties}, if there is one.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.verify-query-plans", havingValue = "true", matchIfMissing = true)
+public class StatementCapture implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    private StatementInspector delegate;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        delegate = resolve(hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR));
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+
+    public List<String> capture(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        captured.set(statements);
+        try {
+            action.run();
+        } finally {
+            captured.remove();
+        }
+        return statements;
+    }
+
+    private static StatementInspector resolve(Object configured) {
+        if (configured == null || configured instanceof StatementInspector) {
+            return (StatementInspector) configured;
+        }
+        try {
+            Class<?> type = configured instanceof Class ? (Class<?>) configured : ClassUtils.forName(configured.toString(), null);
+            return (StatementInspector) BeanUtils.instantiateClass(type);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
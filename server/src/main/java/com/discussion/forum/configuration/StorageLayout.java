@@ -0,0 +1,66 @@
+package com.discussion.forum.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Maps stored file names to {@code <folder>/ab/cd/<name>}, where {@code abcd} are the first hex characters of the name,
+ * so no directory grows past a few thousand entries. Files written before sharding stay readable at
+ * {@code <folder>/<name>} until {@link StorageLayoutMigration} moves them.
+ */
+@Component
+public class StorageLayout {
+
+    private static final Pattern HEX_PREFIX = Pattern.compile("^[0-9a-f]{4}.*");
+
+    private final AppConfiguration appConfiguration;
+
+    @Autowired
+    public StorageLayout(AppConfiguration appConfiguration) {
+        this.appConfiguration = appConfiguration;
+    }
+
+    public Path directory(String folder) {
+        return Paths.get(appConfiguration.getUploadPath(), folder);
+    }
+
+    public Path path(String folder, String name) {
+        return directory(folder).resolve(shardOf(name)).resolve(name);
+    }
+
+    public Path legacyPath(String folder, String name) {
+        return directory(folder).resolve(name);
+    }
+
+    /**
+     * The sharded location is checked again last because the migration may move the file between the first two checks.
+     */
+    public Optional<Path> locate(String folder, String name) {
+        Path sharded = path(folder, name);
+        if (Files.isRegularFile(sharded)) {
+            return Optional.of(sharded);
+        }
+        Path legacy = legacyPath(folder, name);
+        if (Files.isRegularFile(legacy)) {
+            return Optional.of(legacy);
+        }
+        return Files.isRegularFile(sharded) ? Optional.of(sharded) : Optional.empty();
+    }
+
+    public boolean delete(String folder, String name) throws IOException {
+        boolean deleted = Files.deleteIfExists(legacyPath(folder, name));
+        return Files.deleteIfExists(path(folder, name)) || deleted;
+    }
+
+    public static String shardOf(String name) {
+        String key = HEX_PREFIX.matcher(name).matches() ? name : String.format("%08x", name.hashCode());
+        return key.substring(0, 2) + "/" + key.substring(2, 4);
+    }
+}
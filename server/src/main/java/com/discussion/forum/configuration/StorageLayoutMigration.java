@@ -0,0 +1,146 @@
+package com.discussion.forum.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves files left in the flat upload folders into the sharded layout of {@link StorageLayout}.
+ * It runs in the background after startup; reads fall back to the flat location, so serving is unaffected while it works.
+ * Files that cannot be moved are counted and stay where they are for the next run.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.migrate-storage-layout", havingValue = "true", matchIfMissing = true)
+public class StorageLayoutMigration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StorageLayoutMigration.class);
+
+    private static final int BATCH_SIZE = 512;
+
+    private final AppConfiguration appConfiguration;
+    private final StorageLayout storageLayout;
+    private final Counter moved;
+    private final Counter failed;
+
+    @Autowired
+    public StorageLayoutMigration(AppConfiguration appConfiguration, StorageLayout storageLayout, MeterRegistry meterRegistry) {
+        this.appConfiguration = appConfiguration;
+        this.storageLayout = storageLayout;
+        this.moved = meterRegistry.counter("storage.migration.moved");
+        this.failed = meterRegistry.counter("storage.migration.failed");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInBackground() {
+        Thread thread = new Thread(() -> {
+            try {
+                long count = migrate();
+                if (count > 0 || failed.count() > 0) {
+                    LOG.info("Storage layout migration moved {} files, {} failed", count, (long) failed.count());
+                }
+            } catch (IOException e) {
+                LOG.error("Storage layout migration stopped", e);
+            } catch (InterruptedException e) {
+                LOG.warn("Storage layout migration interrupted");
+                Thread.currentThread().interrupt();
+            }
+        }, "storage-layout-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public long migrate() throws IOException, InterruptedException {
+        int threads = appConfiguration.getStorageMigrationThreads();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        AtomicLong count = new AtomicLong();
+        try {
+            for (String folder : List.of(appConfiguration.getProfileImagesFolder(), appConfiguration.getAttachmentsFolder())) {
+                migrateFolder(folder, executor, count);
+                Path variants = storageLayout.directory(folder).resolve("variants");
+                if (Files.isDirectory(variants)) {
+                    try (DirectoryStream<Path> sizes = Files.newDirectoryStream(variants, Files::isDirectory)) {
+                        for (Path size : sizes) {
+                            migrateFolder(folder + "/variants/" + size.getFileName(), executor, count);
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        }
+        return count.get();
+    }
+
+    private void migrateFolder(String folder, ThreadPoolExecutor executor, AtomicLong count) throws IOException {
+        Path directory = storageLayout.directory(folder);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(".")) {
+                    continue;
+                }
+                batch.add(name);
+                if (batch.size() == BATCH_SIZE) {
+                    submit(folder, batch, executor, count);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(folder, batch, executor, count);
+        }
+    }
+
+    private void submit(String folder, List<String> names, ThreadPoolExecutor executor, AtomicLong count) {
+        executor.execute(() -> {
+            for (String name : names) {
+                try {
+                    move(folder, name);
+                    count.incrementAndGet();
+                    moved.increment();
+                } catch (NoSuchFileException e) {
+                    // released while the migration was running
+                } catch (IOException e) {
+                    failed.increment();
+                    LOG.warn("Could not move {}/{} to the sharded layout: {}", folder, name, e.toString());
+                }
+            }
+        });
+    }
+
+    private void move(String folder, String name) throws IOException {
+        Path source = storageLayout.legacyPath(folder, name);
+        Path target = storageLayout.path(folder, name);
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(source);
+        } else {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
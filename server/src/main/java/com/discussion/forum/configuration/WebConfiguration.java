@@ -1,15 +1,16 @@
 package com.discussion.forum.configuration;
 
+import com.discussion.forum.handler.ImageRequestHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.CacheControl;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 
 import java.io.File;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
@@ -17,11 +18,11 @@ public class WebConfiguration implements WebMvcConfigurer {
     @Autowired
     AppConfiguration appConfiguration;
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("file:" + appConfiguration.getUploadPath() + "/")
-                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS));;
+    @Bean
+    SimpleUrlHandlerMapping imageHandlerMapping(ImageRequestHandler imageRequestHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Map.of("/images/**", imageRequestHandler));
+        mapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return mapping;
     }
 
     @Bean
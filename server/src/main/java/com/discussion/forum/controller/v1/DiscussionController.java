@@ -1,10 +1,13 @@
 package com.discussion.forum.controller.v1;
 
+import com.discussion.forum.configuration.PageSizes;
 import com.discussion.forum.controller.v1.api.DiscussionControllerInterface;
 import com.discussion.forum.controller.v1.api.DiscussionUserControllerInterface;
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.Discussion;
-import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.CursorPageVM;
 import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.DiscussionView;
 import com.discussion.forum.service.DiscussionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -22,14 +25,22 @@ public class DiscussionController implements DiscussionControllerInterface {
     @Autowired
     DiscussionService discussionService;
 
+    @Autowired
+    PageSizes pageSizes;
+
+    @Override
+    public DiscussionVM createDiscussion(Discussion discussion, AuthenticatedUser user) {
+        return discussionService.create(user, discussion);
+    }
+
     @Override
-    public DiscussionVM createDiscussion(Discussion discussion, User user) {
-        return new DiscussionVM(discussionService.save(user, discussion));
+    public Page<DiscussionView> getAllDiscussions(Pageable pageable) {
+        return discussionService.getDiscussionViews(pageable);
     }
 
     @Override
-    public Page<DiscussionVM> getAllDiscussions(Pageable pageable) {
-        return discussionService.getAllDiscussions(pageable).map(DiscussionVM::new);
+    public CursorPageVM<DiscussionView> getDiscussionFeed(String cursor, Integer size) {
+        return discussionService.getDiscussionFeed(cursor, null, pageSizes.clamp(size));
     }
 
     @Override
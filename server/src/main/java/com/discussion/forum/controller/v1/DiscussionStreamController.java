@@ -0,0 +1,26 @@
+package com.discussion.forum.controller.v1;
+
+import com.discussion.forum.controller.v1.api.DiscussionStreamControllerInterface;
+import com.discussion.forum.service.DiscussionStreamService;
+import com.discussion.forum.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class DiscussionStreamController implements DiscussionStreamControllerInterface {
+
+    @Autowired
+    DiscussionStreamService discussionStreamService;
+
+    @Autowired
+    UserService userService;
+
+    @Override
+    public SseEmitter streamDiscussions(String username) {
+        if (username != null) {
+            userService.getByUsername(username);
+        }
+        return discussionStreamService.subscribe(username);
+    }
+}
@@ -2,11 +2,16 @@ package com.discussion.forum.controller.v1;
 
 import com.discussion.forum.controller.v1.api.FileUploadControllerInterface;
 import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.AuthenticatedUser;
+import com.discussion.forum.domain.vm.UploadSessionVM;
+import com.discussion.forum.service.ChunkedUploadService;
 import com.discussion.forum.service.FileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.UUID;
 
@@ -16,8 +21,31 @@ public class FileUploadController implements FileUploadControllerInterface {
     @Autowired
     FileService fileService;
 
+    @Autowired
+    ChunkedUploadService chunkedUploadService;
+
     @Override
     public FileAttachment uploadForDiscussion(MultipartFile file) {
         return fileService.saveAttachment(file);
     }
+
+    @Override
+    public UploadSessionVM startUpload(long size, AuthenticatedUser user) throws IOException {
+        return chunkedUploadService.start(user.getUsername(), size);
+    }
+
+    @Override
+    public UploadSessionVM getUpload(String id, AuthenticatedUser user) {
+        return chunkedUploadService.status(user.getUsername(), id);
+    }
+
+    @Override
+    public UploadSessionVM uploadChunk(String id, long offset, InputStream body, AuthenticatedUser user) throws IOException {
+        return chunkedUploadService.writeChunk(user.getUsername(), id, offset, body);
+    }
+
+    @Override
+    public FileAttachment completeUpload(String id, AuthenticatedUser user) throws IOException {
+        return chunkedUploadService.complete(user.getUsername(), id);
+    }
 }
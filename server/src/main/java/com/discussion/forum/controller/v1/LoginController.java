@@ -1,15 +1,30 @@
 package com.discussion.forum.controller.v1;
 
+import com.discussion.forum.cache.UserProfileCache;
+import com.discussion.forum.configuration.AccessTokenService;
 import com.discussion.forum.controller.v1.api.LoginControllerInterface;
-import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.AuthenticatedUser;
+import com.discussion.forum.domain.vm.LoginVM;
 import com.discussion.forum.domain.vm.UserVM;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class LoginController implements LoginControllerInterface {
 
+    @Autowired
+    AccessTokenService accessTokenService;
+
+    @Autowired
+    UserProfileCache userProfileCache;
+
+    /**
+     * Token principals only carry the id and username, so the profile comes from the cache.
+     */
     @Override
-    public UserVM handleLogin(User user) {
-        return new UserVM(user);
+    public LoginVM handleLogin(AuthenticatedUser user) {
+        UserVM profile = userProfileCache.getById(user.getId())
+                .orElseGet(() -> new UserVM(user.getId(), user.getUsername(), user.getDisplayName(), user.getImage()));
+        return new LoginVM(profile, accessTokenService.createToken(user));
     }
 }
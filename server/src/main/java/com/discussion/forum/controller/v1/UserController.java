@@ -1,8 +1,11 @@
 package com.discussion.forum.controller.v1;
 
+import com.discussion.forum.configuration.PageSizes;
 import com.discussion.forum.controller.v1.api.UserControllerInterface;
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.User;
-import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.CursorPageVM;
+import com.discussion.forum.domain.vm.DiscussionView;
 import com.discussion.forum.domain.vm.UserUpdateVM;
 import com.discussion.forum.domain.vm.UserVM;
 import com.discussion.forum.service.DiscussionService;
@@ -20,12 +23,17 @@ import java.util.stream.Collectors;
 @RestController
 public class UserController implements UserControllerInterface {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     @Autowired
     UserService userService;
 
     @Autowired
     DiscussionService discussionService;
 
+    @Autowired
+    PageSizes pageSizes;
+
     @Override
     public ResponseEntity<String> createUser(User user) {
         userService.save(user);
@@ -33,14 +41,23 @@ public class UserController implements UserControllerInterface {
     }
 
     @Override
-    public Page<UserVM> getUsers(User loggedInUser, Pageable page) {
-        return userService.getUsers(loggedInUser, page).map(UserVM::new);
+    public Page<UserVM> getUsers(AuthenticatedUser loggedInUser, Pageable page) {
+        return userService.getUsers(loggedInUser, page);
+    }
+
+    @Override
+    public CursorPageVM<UserVM> getUserDirectory(AuthenticatedUser loggedInUser, String cursor, Integer size) {
+        return userService.getUserDirectory(loggedInUser, cursor, pageSizes.clamp(size));
+    }
+
+    @Override
+    public List<UserVM> suggestUsers(String q, Integer size) {
+        return userService.suggestUsers(q, Math.min(pageSizes.clamp(size), MAX_SUGGESTIONS));
     }
 
     @Override
     public UserVM getUserByName(String username) {
-        User user = userService.getByUsername(username);
-        return new UserVM(user);
+        return userService.getProfile(username);
     }
 
     @Override
@@ -50,8 +67,13 @@ public class UserController implements UserControllerInterface {
     }
 
     @Override
-    public Page<DiscussionVM> getDiscussionsOfUser(String username, Pageable pageable) {
-        return discussionService.getDiscussionsOfUser(username, pageable).map(DiscussionVM::new);
+    public Page<DiscussionView> getDiscussionsOfUser(String username, Pageable pageable) {
+        return discussionService.getDiscussionViewsOfUser(username, pageable);
+    }
+
+    @Override
+    public CursorPageVM<DiscussionView> getDiscussionFeedOfUser(String username, String cursor, Integer size) {
+        return discussionService.getDiscussionFeed(cursor, username, pageSizes.clamp(size));
     }
 
 }
@@ -1,8 +1,10 @@
 package com.discussion.forum.controller.v1.api;
 
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.Discussion;
-import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.CursorPageVM;
 import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.DiscussionView;
 import com.discussion.forum.validation.CurrentUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,10 +20,14 @@ import static com.discussion.forum.utils.Constant.API_1_0_DISCUSSION;
 public interface DiscussionControllerInterface {
 
     @PostMapping()
-    DiscussionVM createDiscussion(@Valid @RequestBody Discussion discussion, @CurrentUser User user);
+    DiscussionVM createDiscussion(@Valid @RequestBody Discussion discussion, @CurrentUser AuthenticatedUser user);
 
     @GetMapping()
-    Page<DiscussionVM> getAllDiscussions(Pageable pageable);
+    Page<DiscussionView> getAllDiscussions(Pageable pageable);
+
+    @GetMapping(params = "cursor")
+    CursorPageVM<DiscussionView> getDiscussionFeed(@RequestParam String cursor,
+                                                 @RequestParam(required = false) Integer size);
 
     @DeleteMapping("/{id:[0-9]+}")
     @PreAuthorize("@discussionSecurityService.isAllowedToDelete(#id, principal)")
@@ -0,0 +1,13 @@
+package com.discussion.forum.controller.v1.api;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("/api/1.0")
+public interface DiscussionStreamControllerInterface {
+    @GetMapping(value = {"/discussions/stream", "/users/{username}/discussions/stream"}, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamDiscussions(@PathVariable(required = false) String username);
+}
@@ -1,14 +1,37 @@
 package com.discussion.forum.controller.v1.api;
 
 import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.AuthenticatedUser;
+import com.discussion.forum.domain.vm.UploadSessionVM;
+import com.discussion.forum.validation.CurrentUser;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import static com.discussion.forum.utils.Constant.API_1_0_DISCUSSION;
 
 @RequestMapping(API_1_0_DISCUSSION)
 public interface FileUploadControllerInterface {
     @PostMapping("/upload")
     FileAttachment uploadForDiscussion(MultipartFile file);
+
+    @PostMapping("/upload/sessions")
+    UploadSessionVM startUpload(@RequestParam long size, @CurrentUser AuthenticatedUser user) throws IOException;
+
+    @GetMapping("/upload/sessions/{id}")
+    UploadSessionVM getUpload(@PathVariable String id, @CurrentUser AuthenticatedUser user);
+
+    @PutMapping("/upload/sessions/{id}")
+    UploadSessionVM uploadChunk(@PathVariable String id, @RequestParam long offset, InputStream body,
+                                @CurrentUser AuthenticatedUser user) throws IOException;
+
+    @PostMapping("/upload/sessions/{id}/complete")
+    FileAttachment completeUpload(@PathVariable String id, @CurrentUser AuthenticatedUser user) throws IOException;
 }
@@ -1,7 +1,9 @@
 package com.discussion.forum.controller.v1.api;
 
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.User;
-import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.CursorPageVM;
+import com.discussion.forum.domain.vm.DiscussionView;
 import com.discussion.forum.domain.vm.UserUpdateVM;
 import com.discussion.forum.domain.vm.UserVM;
 import com.discussion.forum.validation.CurrentUser;
@@ -13,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 
 import static com.discussion.forum.utils.Constant.API_1_0_USERS;
 
@@ -24,7 +27,14 @@ public interface UserControllerInterface {
     ResponseEntity<String> createUser(@Valid @RequestBody User user);
 
     @GetMapping()
-    Page<UserVM> getUsers(@CurrentUser User loggedInUser, Pageable page);
+    Page<UserVM> getUsers(@CurrentUser AuthenticatedUser loggedInUser, Pageable page);
+
+    @GetMapping(params = "cursor")
+    CursorPageVM<UserVM> getUserDirectory(@CurrentUser AuthenticatedUser loggedInUser, @RequestParam String cursor,
+                                          @RequestParam(required = false) Integer size);
+
+    @GetMapping(value = "/suggest", params = "q")
+    List<UserVM> suggestUsers(@RequestParam String q, @RequestParam(required = false) Integer size);
 
     @GetMapping("/{username}")
     UserVM getUserByName(@PathVariable String username);
@@ -34,6 +44,11 @@ public interface UserControllerInterface {
     UserVM updateUser(@PathVariable long id, @Valid @RequestBody(required = false) UserUpdateVM userUpdate);
 
     @GetMapping("/{username}/discussions")
-    Page<DiscussionVM> getDiscussionsOfUser(@PathVariable String username, Pageable pageable);
+    Page<DiscussionView> getDiscussionsOfUser(@PathVariable String username, Pageable pageable);
+
+    @GetMapping(value = "/{username}/discussions", params = "cursor")
+    CursorPageVM<DiscussionView> getDiscussionFeedOfUser(@PathVariable String username,
+                                                       @RequestParam String cursor,
+                                                       @RequestParam(required = false) Integer size);
 
 }
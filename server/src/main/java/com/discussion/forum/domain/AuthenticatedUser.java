@@ -0,0 +1,35 @@
+package com.discussion.forum.domain;
+
+import com.discussion.forum.utils.Roles;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The principal kept in the security context once a request is authenticated.
+ * It is an immutable copy of the user's public fields, never attached to a persistence context,
+ * so controllers receive it through {@code @CurrentUser} without loading the entity.
+ * Principals rebuilt from an access token only carry the id and username.
+ */
+@Value
+public class AuthenticatedUser implements Serializable {
+    private static final long serialVersionUID = -2309471957632810847L;
+
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList(Roles.ROLE_USER);
+
+    long id;
+    String username;
+    String displayName;
+    String image;
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getDisplayName(), user.getImage());
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+}
@@ -9,7 +9,14 @@ import java.util.Date;
 
 @Entity
 @Data
+@NamedEntityGraph(name = Discussion.FEED_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("attachment")
+})
 public class Discussion {
+    public static final String FEED_GRAPH = "Discussion.feed";
+
+
     @Id
     @GeneratedValue
     private long id;
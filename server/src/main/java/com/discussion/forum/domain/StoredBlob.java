@@ -0,0 +1,19 @@
+package com.discussion.forum.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+    @Id
+    private String path;
+
+    private int refCount;
+}
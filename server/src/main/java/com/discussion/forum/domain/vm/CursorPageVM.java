@@ -0,0 +1,29 @@
+package com.discussion.forum.domain.vm;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+public class CursorPageVM<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private String nextCursor;
+
+    public CursorPageVM(List<T> content, int size, String nextCursor) {
+        this.setContent(content);
+        this.setSize(size);
+        this.setNextCursor(nextCursor);
+    }
+
+    public <U> CursorPageVM<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPageVM<>(content.stream().map(converter).collect(Collectors.toList()), size, nextCursor);
+    }
+}
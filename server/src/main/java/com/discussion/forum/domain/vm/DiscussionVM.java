@@ -18,10 +18,14 @@ public class DiscussionVM {
     private FileAttachmentVM attachment;
 
     public DiscussionVM(Discussion discussion) {
+        this(discussion, new UserVM(discussion.getUser()));
+    }
+
+    public DiscussionVM(Discussion discussion, UserVM user) {
         this.setId(discussion.getId());
         this.setContent(discussion.getContent());
         this.setDate(discussion.getTimestamp().getTime());
-        this.setUser(new UserVM(discussion.getUser()));
+        this.setUser(user);
         if(discussion.getAttachment() != null) {
             this.setAttachment(new FileAttachmentVM(discussion.getAttachment()));
         }
@@ -0,0 +1,59 @@
+package com.discussion.forum.domain.vm;
+
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Read-only feed item built straight from a JPQL constructor expression.
+ * Serialises to the same JSON as {@link DiscussionVM}.
+ */
+@Value
+public class DiscussionView {
+
+    long id;
+
+    String content;
+
+    long date;
+
+    UserView user;
+
+    AttachmentView attachment;
+
+    public DiscussionView(long id, String content, Date timestamp,
+                          long userId, String username, String displayName, String image,
+                          String attachmentName, String attachmentFileType) {
+        this.id = id;
+        this.content = content;
+        this.date = timestamp.getTime();
+        this.user = new UserView(userId, username, displayName, image);
+        this.attachment = attachmentName == null ? null : new AttachmentView(attachmentName, attachmentFileType);
+    }
+
+    private DiscussionView(long id, String content, long date, UserView user, AttachmentView attachment) {
+        this.id = id;
+        this.content = content;
+        this.date = date;
+        this.user = user;
+        this.attachment = attachment;
+    }
+
+    public DiscussionView withUser(UserView user) {
+        return new DiscussionView(id, content, date, user, attachment);
+    }
+
+    @Value
+    public static class UserView {
+        long id;
+        String username;
+        String displayName;
+        String image;
+    }
+
+    @Value
+    public static class AttachmentView {
+        String name;
+        String fileType;
+    }
+}
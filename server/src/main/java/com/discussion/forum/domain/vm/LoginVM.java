@@ -0,0 +1,18 @@
+package com.discussion.forum.domain.vm;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class LoginVM extends UserVM {
+
+    private String token;
+
+    public LoginVM(UserVM profile, String token) {
+        super(profile.getId(), profile.getUsername(), profile.getDisplayName(), profile.getImage());
+        this.setToken(token);
+    }
+}
@@ -0,0 +1,19 @@
+package com.discussion.forum.domain.vm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionVM {
+
+    private String id;
+
+    private long size;
+
+    private long offset;
+
+    private long received;
+}
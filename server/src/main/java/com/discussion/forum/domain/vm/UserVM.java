@@ -1,11 +1,13 @@
 package com.discussion.forum.domain.vm;
 
 import com.discussion.forum.domain.User;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 public class UserVM {
 
     private long id;
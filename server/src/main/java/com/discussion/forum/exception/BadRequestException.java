@@ -0,0 +1,14 @@
+package com.discussion.forum.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 6912472437468352931L;
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
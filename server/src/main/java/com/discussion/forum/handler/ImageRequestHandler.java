@@ -0,0 +1,191 @@
+package com.discussion.forum.handler;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
+import com.discussion.forum.service.ImageVariantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpRequestHandler;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves {@code /images/<folder>/<name>[?size=N]} straight from the upload folders.
+ * Stored names never get new content, so the name alone is a strong ETag and {@code If-None-Match}
+ * is answered before the file is looked up. While a requested variant is still being generated the original
+ * is served with {@code no-cache}, so the sized URL is fetched again once the variant exists.
+ * On Tomcat the body goes out through sendfile,
+ * elsewhere through {@link FileChannel#transferTo}. Single byte ranges are honoured.
+ */
+@Component
+public class ImageRequestHandler implements HttpRequestHandler {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final Pattern IMAGE_PATH = Pattern.compile("([A-Za-z0-9_-]+)/([A-Za-z0-9_-][A-Za-z0-9._-]*)");
+    private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).getHeaderValue();
+    private static final String FALLBACK_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    private final AppConfiguration appConfiguration;
+    private final StorageLayout storageLayout;
+    private final ImageVariantService imageVariantService;
+
+    @Autowired
+    public ImageRequestHandler(AppConfiguration appConfiguration, StorageLayout storageLayout,
+                               ImageVariantService imageVariantService) {
+        this.appConfiguration = appConfiguration;
+        this.storageLayout = storageLayout;
+        this.imageVariantService = imageVariantService;
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        Matcher path = IMAGE_PATH.matcher(String.valueOf(request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)));
+        if (!path.matches() || !isImageFolder(path.group(1))) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String folder = path.group(1);
+        String name = path.group(2);
+        int requestedSize = parseSize(request.getParameter("size"));
+        OptionalInt variantSize = requestedSize > 0 ? imageVariantService.selectSize(requestedSize) : OptionalInt.empty();
+
+        String originalTag = "\"" + name + "\"";
+        String variantTag = variantSize.isPresent() ? "\"" + name + "-" + variantSize.getAsInt() + "\"" : originalTag;
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), variantTag)) {
+            response.setHeader(HttpHeaders.ETAG, variantTag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String etag = variantTag;
+        String cacheControl = CACHE_CONTROL;
+        Optional<Path> file = variantSize.isPresent()
+                ? imageVariantService.findVariant(folder, name, requestedSize)
+                : Optional.empty();
+        if (!file.isPresent()) {
+            file = storageLayout.locate(folder, name);
+            etag = originalTag;
+            if (variantSize.isPresent()) {
+                cacheControl = FALLBACK_CACHE_CONTROL;
+            }
+        }
+        if (!file.isPresent()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.get(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length;
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            MediaTypeFactory.getMediaType(name).ifPresent(mediaType -> response.setContentType(mediaType.toString()));
+
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.equals(etag))) {
+                Matcher byteRange = BYTE_RANGE.matcher(range);
+                if (byteRange.matches() && !(byteRange.group(1).isEmpty() && byteRange.group(2).isEmpty())) {
+                    long[] bounds = parseRange(byteRange.group(1), byteRange.group(2), length);
+                    if (bounds == null) {
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                        return;
+                    }
+                    start = bounds[0];
+                    end = bounds[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+                }
+            }
+            response.setContentLengthLong(end - start);
+            if (head) {
+                return;
+            }
+            if (end - start >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    private boolean isImageFolder(String folder) {
+        return folder.equals(appConfiguration.getProfileImagesFolder()) || folder.equals(appConfiguration.getAttachmentsFolder());
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] parseRange(String first, String last, long length) {
+        try {
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix == 0 || length == 0 ? null : new long[]{Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length : Math.min(length, Long.parseLong(last) + 1);
+            return start >= length || end <= start ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseSize(String size) {
+        if (size == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.discussion.forum.handler;
 
 import com.discussion.forum.exception.ApiErrorException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.BindingResult;
@@ -12,7 +14,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.ResourceBundle;
 
 import static com.discussion.forum.utils.Constant.API_1_0_LOGIN;
 
@@ -32,6 +36,30 @@ public class RestExceptionHandler {
         return apiError;
     }
 
+    /**
+     * Signups that race for the same name get past {@code @UniqueUsername} and are stopped by the unique index.
+     * They get the same answer as the validator would have given.
+     */
+    @ExceptionHandler({DataIntegrityViolationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ApiErrorException handleDataIntegrityViolationException(DataIntegrityViolationException exception, HttpServletRequest request) {
+        if (!isUsernameConflict(exception)) {
+            throw exception;
+        }
+        ApiErrorException apiError = new ApiErrorException(HttpStatus.BAD_REQUEST.value(), "Validator error", request.getServletPath());
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("username", ResourceBundle.getBundle("ValidationMessages", Locale.getDefault())
+                .getString("forum.constraints.username.UniqueUsername.message"));
+        apiError.setValidationErrors(validationErrors);
+        return apiError;
+    }
+
+    private static boolean isUsernameConflict(DataIntegrityViolationException exception) {
+        return exception.getCause() instanceof ConstraintViolationException
+                && String.valueOf(((ConstraintViolationException) exception.getCause()).getConstraintName())
+                .toLowerCase(Locale.ROOT).contains("idx_user_username");
+    }
+
 //    @ExceptionHandler({AccessDeniedException.class})
 //    @ResponseStatus(HttpStatus.UNAUTHORIZED)
 //    ApiErrorException handleAccessDeniedException() {
@@ -0,0 +1,7 @@
+package com.discussion.forum.repository;
+
+public interface DiscussionIdProjection {
+    long getId();
+
+    String getUsername();
+}
@@ -1,15 +1,55 @@
 package com.discussion.forum.repository;
 
 import com.discussion.forum.domain.Discussion;
-import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.DiscussionView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface DiscussionRepository extends JpaRepository<Discussion, Long>, JpaSpecificationExecutor<Discussion> {
-    Page<Discussion> findByUser(User user, Pageable pageable);
+public interface DiscussionRepository extends JpaRepository<Discussion, Long>, JpaSpecificationExecutor<Discussion>, DiscussionRepositoryCustom {
+    @Override
+    @EntityGraph(Discussion.FEED_GRAPH)
+    Page<Discussion> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(Discussion.FEED_GRAPH)
+    Page<Discussion> findAll(@Nullable Specification<Discussion> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(Discussion.FEED_GRAPH)
+    List<Discussion> findAll(@Nullable Specification<Discussion> spec, Sort sort);
+
+    @EntityGraph(Discussion.FEED_GRAPH)
+    @Query(value = "select d from Discussion d where d.user.id = :userId",
+            countQuery = "select count(d) from Discussion d where d.user.id = :userId")
+    Page<Discussion> findByUserId(@Param("userId") long userId, Pageable pageable);
+
+    boolean existsByIdAndUserId(long id, long userId);
+
+    @Query(value = "select new com.discussion.forum.domain.vm.DiscussionView(d.id, d.content, d.timestamp, u.id, u.username, u.displayName, u.image, a.name, a.fileType)"
+            + " from Discussion d join d.user u left join d.attachment a",
+            countQuery = "select count(d) from Discussion d")
+    Page<DiscussionView> findAllViews(Pageable pageable);
+
+    @Query(value = "select new com.discussion.forum.domain.vm.DiscussionView(d.id, d.content, d.timestamp, u.id, u.username, u.displayName, u.image, a.name, a.fileType)"
+            + " from Discussion d join d.user u left join d.attachment a where d.user.id = :userId",
+            countQuery = "select count(d) from Discussion d where d.user.id = :userId")
+    Page<DiscussionView> findViewsByUserId(@Param("userId") long userId, Pageable pageable);
+
+    @Query("select new com.discussion.forum.domain.vm.DiscussionView(d.id, d.content, d.timestamp, u.id, u.username, u.displayName, u.image, a.name, a.fileType)"
+            + " from Discussion d join d.user u left join d.attachment a where d.id = :id")
+    Optional<DiscussionView> findViewById(@Param("id") long id);
+
+    @Query("select d.id as id, u.username as username from Discussion d left join d.user u order by d.id desc")
+    List<DiscussionIdProjection> findLatestIds(Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.discussion.forum.repository;
+
+import com.discussion.forum.domain.Discussion;
+import com.discussion.forum.domain.vm.DiscussionView;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface DiscussionRepositoryCustom {
+    List<Discussion> findNewestFirst(Specification<Discussion> spec, int limit);
+
+    List<DiscussionView> findViewsNewestFirst(Specification<Discussion> spec, int limit);
+}
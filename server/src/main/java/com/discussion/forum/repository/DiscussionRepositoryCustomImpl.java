@@ -0,0 +1,60 @@
+package com.discussion.forum.repository;
+
+import com.discussion.forum.domain.Discussion;
+import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.DiscussionView;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+public class DiscussionRepositoryCustomImpl implements DiscussionRepositoryCustom {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    public List<Discussion> findNewestFirst(Specification<Discussion> spec, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Discussion> query = criteriaBuilder.createQuery(Discussion.class);
+        Root<Discussion> root = query.from(Discussion.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint("javax.persistence.fetchgraph", entityManager.getEntityGraph(Discussion.FEED_GRAPH))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<DiscussionView> findViewsNewestFirst(Specification<Discussion> spec, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DiscussionView> query = criteriaBuilder.createQuery(DiscussionView.class);
+        Root<Discussion> root = query.from(Discussion.class);
+        Join<Discussion, User> user = root.join("user");
+        Join<Discussion, FileAttachment> attachment = root.join("attachment", JoinType.LEFT);
+        query.select(criteriaBuilder.construct(DiscussionView.class,
+                root.get("id"), root.get("content"), root.get("timestamp"),
+                user.get("id"), user.get("username"), user.get("displayName"), user.get("image"),
+                attachment.get("name"), attachment.get("fileType")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
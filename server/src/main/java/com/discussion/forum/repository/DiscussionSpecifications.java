@@ -0,0 +1,19 @@
+package com.discussion.forum.repository;
+
+import com.discussion.forum.domain.Discussion;
+import org.springframework.data.jpa.domain.Specification;
+
+public class DiscussionSpecifications {
+
+    public static Specification<Discussion> userIdIs(long userId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Discussion> idLessThan(long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("id"), id);
+    }
+
+    public static Specification<Discussion> idGreaterThan(long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+}
@@ -1,11 +1,35 @@
 package com.discussion.forum.repository;
 
 import com.discussion.forum.domain.FileAttachment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 public interface FileAttachmentRepository extends JpaRepository<FileAttachment, Long> {
     List<FileAttachment> findByDateBeforeAndDiscussionIsNull(Date date);
+
+    @Query("select f.id as id, f.name as name from FileAttachment f " +
+            "where f.date < :date and f.discussion is null and f.id > :afterId order by f.id")
+    List<OrphanAttachment> findByDateBeforeAndDiscussionIsNull(@Param("date") Date date, @Param("afterId") long afterId,
+                                                               Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from FileAttachment f where f.id in :ids and f.discussion is null")
+    int deleteOrphansByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select f.id from FileAttachment f where f.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface OrphanAttachment {
+        long getId();
+        String getName();
+    }
 }
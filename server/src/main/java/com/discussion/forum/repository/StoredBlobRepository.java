@@ -0,0 +1,17 @@
+package com.discussion.forum.repository;
+
+import com.discussion.forum.domain.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from StoredBlob b where b.path = :path")
+    Optional<StoredBlob> findForUpdate(@Param("path") String path);
+}
@@ -1,14 +1,36 @@
 package com.discussion.forum.repository;
 
 import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.UserVM;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
-    Page<User> findByUsernameNot(String username, Pageable page);
+    @Query("select u.id from User u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("select u.username from User u where u.username is not null")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<String> streamAllUsernames();
+
+    @Query("select new com.discussion.forum.domain.vm.UserVM(u.id, u.username, u.displayName, u.image) from User u order by u.id")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<UserVM> streamProfilesOrderById();
+
+    @Query(value = "select u.id from User u", countQuery = "select count(u) from User u")
+    Page<Long> findAllIds(Pageable page);
+
+    @Query(value = "select u.id from User u where u.username <> :username",
+            countQuery = "select count(u) from User u where u.username <> :username")
+    Page<Long> findIdsByUsernameNot(@Param("username") String username, Pageable page);
 }
@@ -0,0 +1,19 @@
+package com.discussion.forum.service;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BlobStore {
+    Blob store(String folder, InputStream inputStream, long maxSize) throws IOException;
+    boolean release(String folder, String name) throws IOException;
+    boolean releaseReference(String folder, String name);
+    boolean unlinkIfUnreferenced(String folder, String name) throws IOException;
+
+    @Value
+    class Blob {
+        String name;
+        byte[] head;
+    }
+}
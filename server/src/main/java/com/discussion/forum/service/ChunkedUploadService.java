@@ -0,0 +1,15 @@
+package com.discussion.forum.service;
+
+import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.vm.UploadSessionVM;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ChunkedUploadService {
+    UploadSessionVM start(String username, long size) throws IOException;
+    UploadSessionVM status(String username, String id);
+    UploadSessionVM writeChunk(String username, String id, long offset, InputStream body) throws IOException;
+    FileAttachment complete(String username, String id) throws IOException;
+    void expireAbandoned();
+}
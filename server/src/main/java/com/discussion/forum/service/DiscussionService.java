@@ -1,7 +1,11 @@
 package com.discussion.forum.service;
 
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.Discussion;
 import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.CursorPageVM;
+import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.DiscussionView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -10,10 +14,18 @@ import java.util.List;
 public interface DiscussionService {
     Discussion save(User user, Discussion discussion);
 
+    DiscussionVM create(AuthenticatedUser author, Discussion discussion);
+
     Page<Discussion> getAllDiscussions(Pageable pageable);
 
     Page<Discussion> getDiscussionsOfUser(String username, Pageable pageable);
 
+    Page<DiscussionView> getDiscussionViews(Pageable pageable);
+
+    Page<DiscussionView> getDiscussionViewsOfUser(String username, Pageable pageable);
+
+    CursorPageVM<DiscussionView> getDiscussionFeed(String cursor, String username, int size);
+
     Page<Discussion> getOldDiscussions(long id, String username, Pageable pageable);
 
     List<Discussion> getNewDiscussions(long id, String username, Pageable pageable);
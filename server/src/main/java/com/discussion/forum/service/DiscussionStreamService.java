@@ -0,0 +1,12 @@
+package com.discussion.forum.service;
+
+import com.discussion.forum.domain.vm.DiscussionVM;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DiscussionStreamService {
+    SseEmitter subscribe(String username);
+
+    void publish(DiscussionVM discussion);
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,7 @@
+package com.discussion.forum.service;
+
+public interface FileDeletionQueue {
+    void enqueue(String folder, String name);
+    void drain();
+    int pending();
+}
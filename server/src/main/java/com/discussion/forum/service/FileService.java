@@ -1,15 +1,16 @@
 package com.discussion.forum.service;
 
 import com.discussion.forum.domain.FileAttachment;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.core.io.InputStreamSource;
 
 import java.io.IOException;
 
 public interface FileService {
     String saveProfileImage(String base64Image) throws IOException;
     String detectType(byte[] fileArr);
+    String detectBase64Type(String base64Image);
     void deleteProfileImage(String image);
-    FileAttachment saveAttachment(MultipartFile file);
+    FileAttachment saveAttachment(InputStreamSource file);
     void cleanupStorage();
     void deleteAttachmentImage(String image);
 }
@@ -1,7 +1,7 @@
 package com.discussion.forum.service;
 
-import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.AuthenticatedUser;
 
 public interface IDiscussionSecurityService {
-    boolean isAllowedToDelete(long hoaxId, User loggedInUser);
+    boolean isAllowedToDelete(long hoaxId, AuthenticatedUser loggedInUser);
 }
@@ -0,0 +1,13 @@
+package com.discussion.forum.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+public interface ImageVariantService {
+    void generateVariants(String folder, String name);
+    OptionalInt selectSize(int size);
+    Optional<Path> findVariant(String folder, String name, int size);
+    void deleteVariants(String folder, String name) throws IOException;
+}
@@ -1,13 +1,22 @@
 package com.discussion.forum.service;
 
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.CursorPageVM;
 import com.discussion.forum.domain.vm.UserUpdateVM;
+import com.discussion.forum.domain.vm.UserVM;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface UserService {
     User save(User user);
-    Page<User> getUsers(User loggedInUser, Pageable pageable);
+    Page<UserVM> getUsers(AuthenticatedUser loggedInUser, Pageable pageable);
+    CursorPageVM<UserVM> getUserDirectory(AuthenticatedUser loggedInUser, String cursor, int size);
     User getByUsername(String username);
+    UserVM getProfile(String username);
+    List<UserVM> suggestUsers(String query, int size);
+    long getIdByUsername(String username);
     User update(long id, UserUpdateVM userUpdate);
 }
@@ -0,0 +1,190 @@
+package com.discussion.forum.service.impl;
+
+import com.discussion.forum.configuration.StorageLayout;
+import com.discussion.forum.domain.StoredBlob;
+import com.discussion.forum.exception.PayloadTooLargeException;
+import com.discussion.forum.repository.StoredBlobRepository;
+import com.discussion.forum.service.BlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploads under the hex SHA-256 of their content, so identical files share one copy on disk.
+ * The digest is computed while the upload is copied, and each blob carries a reference count
+ * so it is only unlinked when its last user lets go of it.
+ * Names that are not content addresses predate this store and are deleted directly.
+ */
+@Service
+public class BlobStoreImpl implements BlobStore {
+
+    private static final int HEAD_SIZE = 8 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+    private static final Pattern CONTENT_ADDRESS = Pattern.compile("[0-9a-f]{64}");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StorageLayout storageLayout;
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @Autowired
+    public BlobStoreImpl(StorageLayout storageLayout, StoredBlobRepository storedBlobRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.storageLayout = storageLayout;
+        this.storedBlobRepository = storedBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public Blob store(String folder, InputStream inputStream, long maxSize) throws IOException {
+        Path directory = storageLayout.directory(folder);
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(".upload-" + UUID.randomUUID());
+        MessageDigest digest = sha256();
+        byte[] head;
+        try (InputStream in = inputStream;
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel destination = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            head = in.readNBytes(HEAD_SIZE);
+            long written = head.length;
+            checkSize(written, maxSize);
+            digest.update(head);
+            writeFully(destination, ByteBuffer.wrap(head));
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                written += buffer.position();
+                checkSize(written, maxSize);
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                writeFully(destination, buffer);
+                buffer.clear();
+            }
+        } catch (PayloadTooLargeException | IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        String name = toHex(digest.digest());
+        reference(folder, name, temp);
+        return new Blob(name, head);
+    }
+
+    @Override
+    public boolean release(String folder, String name) throws IOException {
+        return releaseReference(folder, name) && unlinkIfUnreferenced(folder, name);
+    }
+
+    @Override
+    public boolean releaseReference(String folder, String name) {
+        if (name == null) {
+            return false;
+        }
+        if (!CONTENT_ADDRESS.matcher(name).matches()) {
+            return true;
+        }
+        String path = folder + "/" + name;
+        synchronized (lockFor(path)) {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                StoredBlob blob = storedBlobRepository.findForUpdate(path).orElse(null);
+                if (blob == null || blob.getRefCount() <= 1) {
+                    if (blob != null) {
+                        storedBlobRepository.delete(blob);
+                    }
+                    return true;
+                }
+                blob.setRefCount(blob.getRefCount() - 1);
+                return false;
+            }));
+        }
+    }
+
+    /**
+     * Checks the reference count again under the blob's lock, so a file that was uploaded again
+     * after its last release was queued is kept.
+     */
+    @Override
+    public boolean unlinkIfUnreferenced(String folder, String name) throws IOException {
+        if (name == null) {
+            return false;
+        }
+        String path = folder + "/" + name;
+        synchronized (lockFor(path)) {
+            if (CONTENT_ADDRESS.matcher(name).matches() && storedBlobRepository.existsById(path)) {
+                return false;
+            }
+            storageLayout.delete(folder, name);
+            return true;
+        }
+    }
+
+    private void reference(String folder, String name, Path temp) throws IOException {
+        String path = folder + "/" + name;
+        synchronized (lockFor(path)) {
+            if (storageLayout.locate(folder, name).isPresent()) {
+                Files.delete(temp);
+            } else {
+                Path target = storageLayout.path(folder, name);
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                StoredBlob blob = storedBlobRepository.findForUpdate(path).orElseGet(() -> new StoredBlob(path, 0));
+                blob.setRefCount(blob.getRefCount() + 1);
+                storedBlobRepository.save(blob);
+            });
+        }
+    }
+
+    private Object lockFor(String path) {
+        return locks[Math.floorMod(path.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static void checkSize(long written, long maxSize) {
+        if (written > maxSize) {
+            throw new PayloadTooLargeException("Upload exceeds " + maxSize + " bytes");
+        }
+    }
+
+    private static void writeFully(FileChannel destination, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            destination.write(buffer);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
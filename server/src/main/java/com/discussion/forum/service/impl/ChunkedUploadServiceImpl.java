@@ -0,0 +1,263 @@
+package com.discussion.forum.service.impl;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.vm.UploadSessionVM;
+import com.discussion.forum.exception.BadRequestException;
+import com.discussion.forum.exception.NotFoundException;
+import com.discussion.forum.exception.PayloadTooLargeException;
+import com.discussion.forum.service.ChunkedUploadService;
+import com.discussion.forum.service.FileService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lets clients upload an attachment in pieces and resume after a dropped connection.
+ * A session preallocates a temp file of the declared size, every chunk is written at its own offset
+ * with positional writes, and the byte ranges received so far are tracked so a client can ask where to resume.
+ * Once every byte is in, the temp file goes through the regular attachment path.
+ * Sessions idle for longer than {@code blog.chunked-upload-ttl} are dropped with their file.
+ */
+@Service
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final int CHUNK_BUFFER_SIZE = 64 * 1024;
+
+    private final AppConfiguration appConfiguration;
+    private final FileService fileService;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final Counter started;
+    private final Counter completed;
+    private final Counter expired;
+    private final Counter expiryErrors;
+
+    @Autowired
+    public ChunkedUploadServiceImpl(AppConfiguration appConfiguration, FileService fileService, MeterRegistry meterRegistry) {
+        this.appConfiguration = appConfiguration;
+        this.fileService = fileService;
+        this.started = meterRegistry.counter("uploads.chunked.started");
+        this.completed = meterRegistry.counter("uploads.chunked.completed");
+        this.expired = meterRegistry.counter("uploads.chunked.expired");
+        this.expiryErrors = meterRegistry.counter("uploads.chunked.expiry.errors");
+        meterRegistry.gauge("uploads.chunked.active", sessions, Map::size);
+    }
+
+    @Override
+    public UploadSessionVM start(String username, long size) throws IOException {
+        if (size <= 0) {
+            throw new BadRequestException("Upload size must be positive");
+        }
+        long maxSize = appConfiguration.getMaxAttachmentSize().toBytes();
+        if (size > maxSize) {
+            throw new PayloadTooLargeException("Upload exceeds " + maxSize + " bytes");
+        }
+        long inProgress = sessions.values().stream().filter(session -> session.username.equals(username)).count();
+        if (inProgress >= appConfiguration.getMaxChunkedUploadsPerUser()) {
+            throw new BadRequestException("Too many uploads in progress");
+        }
+        Path directory = directory();
+        Files.createDirectories(directory);
+        String id = UUID.randomUUID().toString();
+        Path file = directory.resolve(id);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(1), size - 1);
+        }
+        Session session = new Session(id, username, size, file);
+        sessions.put(id, session);
+        started.increment();
+        return session.toVM();
+    }
+
+    @Override
+    public UploadSessionVM status(String username, String id) {
+        return find(username, id).toVM();
+    }
+
+    @Override
+    public UploadSessionVM writeChunk(String username, String id, long offset, InputStream body) throws IOException {
+        Session session = find(username, id);
+        if (offset < 0 || offset >= session.size) {
+            throw new BadRequestException("Offset is outside the upload");
+        }
+        Lock lock = session.lock.readLock();
+        lock.lock();
+        try {
+            if (session.closed) {
+                throw new NotFoundException("Upload " + id + " not found");
+            }
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BUFFER_SIZE);
+                int read;
+                while ((read = body.read(buffer.array())) != -1) {
+                    if (position + read > session.size) {
+                        throw new BadRequestException("Chunk runs past the declared size");
+                    }
+                    buffer.clear().limit(read);
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                }
+            } finally {
+                session.received(offset, position);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return session.toVM();
+    }
+
+    @Override
+    public FileAttachment complete(String username, String id) throws IOException {
+        Session session = find(username, id);
+        Lock lock = session.lock.writeLock();
+        lock.lock();
+        try {
+            if (session.closed) {
+                throw new NotFoundException("Upload " + id + " not found");
+            }
+            if (session.received() < session.size) {
+                throw new BadRequestException("Upload is incomplete, next missing byte is " + session.firstMissing());
+            }
+            session.closed = true;
+            sessions.remove(id);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            FileAttachment fileAttachment = fileService.saveAttachment(new FileSystemResource(session.file));
+            completed.increment();
+            return fileAttachment;
+        } finally {
+            Files.deleteIfExists(session.file);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedRate = 10 * 60 * 1000)
+    public void expireAbandoned() {
+        long cutoff = System.currentTimeMillis() - appConfiguration.getChunkedUploadTtl().toMillis();
+        for (Session session : sessions.values()) {
+            if (session.lastActivity >= cutoff || !session.lock.writeLock().tryLock()) {
+                continue;
+            }
+            try {
+                if (!session.closed) {
+                    session.closed = true;
+                    sessions.remove(session.id);
+                    Files.deleteIfExists(session.file);
+                    expired.increment();
+                }
+            } catch (IOException e) {
+                expiryErrors.increment();
+            } finally {
+                session.lock.writeLock().unlock();
+            }
+        }
+        Path directory = directory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, Files::isRegularFile)) {
+            for (Path file : files) {
+                if (!sessions.containsKey(file.getFileName().toString())
+                        && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                    expired.increment();
+                }
+            }
+        } catch (IOException e) {
+            expiryErrors.increment();
+        }
+    }
+
+    private Session find(String username, String id) {
+        Session session = sessions.get(id);
+        if (session == null || !session.username.equals(username)) {
+            throw new NotFoundException("Upload " + id + " not found");
+        }
+        session.lastActivity = System.currentTimeMillis();
+        return session;
+    }
+
+    private Path directory() {
+        return Paths.get(appConfiguration.getChunkedUploadPath());
+    }
+
+    private static class Session {
+        final String id;
+        final String username;
+        final long size;
+        final Path file;
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final TreeMap<Long, Long> ranges = new TreeMap<>();
+        volatile long lastActivity = System.currentTimeMillis();
+        boolean closed;
+
+        Session(String id, String username, long size, Path file) {
+            this.id = id;
+            this.username = username;
+            this.size = size;
+            this.file = file;
+        }
+
+        void received(long start, long end) {
+            lastActivity = System.currentTimeMillis();
+            if (end <= start) {
+                return;
+            }
+            synchronized (ranges) {
+                Map.Entry<Long, Long> previous = ranges.floorEntry(start);
+                if (previous != null && previous.getValue() >= start) {
+                    start = previous.getKey();
+                    end = Math.max(end, previous.getValue());
+                }
+                Map.Entry<Long, Long> next;
+                while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+                    end = Math.max(end, next.getValue());
+                    ranges.remove(next.getKey());
+                }
+                ranges.put(start, end);
+            }
+        }
+
+        long received() {
+            synchronized (ranges) {
+                return ranges.entrySet().stream().mapToLong(range -> range.getValue() - range.getKey()).sum();
+            }
+        }
+
+        long firstMissing() {
+            synchronized (ranges) {
+                Map.Entry<Long, Long> first = ranges.firstEntry();
+                return first != null && first.getKey() == 0 ? first.getValue() : 0;
+            }
+        }
+
+        UploadSessionVM toVM() {
+            return new UploadSessionVM(id, size, firstMissing(), received());
+        }
+    }
+}
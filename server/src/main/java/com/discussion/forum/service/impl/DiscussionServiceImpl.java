@@ -1,21 +1,39 @@
 package com.discussion.forum.service.impl;
 
+import com.discussion.forum.cache.DiscussionIdIndex;
+import com.discussion.forum.cache.HotFeed;
+import com.discussion.forum.cache.UserProfileCache;
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.Discussion;
 import com.discussion.forum.domain.FileAttachment;
 import com.discussion.forum.domain.User;
 import com.discussion.forum.repository.DiscussionRepository;
 import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.domain.vm.CursorPageVM;
+import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.DiscussionView;
+import com.discussion.forum.domain.vm.UserVM;
 import com.discussion.forum.service.DiscussionService;
+import com.discussion.forum.service.DiscussionStreamService;
 import com.discussion.forum.service.FileService;
 import com.discussion.forum.service.UserService;
+import com.discussion.forum.utils.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
+import java.util.OptionalLong;
+
+import static com.discussion.forum.repository.DiscussionSpecifications.idGreaterThan;
+import static com.discussion.forum.repository.DiscussionSpecifications.idLessThan;
+import static com.discussion.forum.repository.DiscussionSpecifications.userIdIs;
+import static com.discussion.forum.utils.Transactions.afterCommit;
 
 @Service
 public class DiscussionServiceImpl implements DiscussionService {
@@ -32,8 +50,43 @@ public class DiscussionServiceImpl implements DiscussionService {
     @Autowired
     FileService fileService;
 
+    @Autowired
+    DiscussionIdIndex discussionIdIndex;
+
+    @Autowired
+    DiscussionStreamService discussionStreamService;
+
+    @Autowired
+    HotFeed hotFeed;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    UserProfileCache userProfileCache;
+
     @Override
     public Discussion save(User user, Discussion discussion) {
+        Discussion saved = persist(user, user.getUsername(), discussion);
+        discussionStreamService.publish(new DiscussionVM(saved));
+        return saved;
+    }
+
+    /**
+     * Saves a discussion for the logged-in user without loading their entity: the author is set as a reference
+     * and the author part of the view comes from the profile cache.
+     */
+    @Override
+    public DiscussionVM create(AuthenticatedUser author, Discussion discussion) {
+        Discussion saved = persist(userRepository.getById(author.getId()), author.getUsername(), discussion);
+        UserVM profile = userProfileCache.getById(author.getId())
+                .orElseGet(() -> new UserVM(author.getId(), author.getUsername(), author.getDisplayName(), author.getImage()));
+        DiscussionVM view = new DiscussionVM(saved, profile);
+        discussionStreamService.publish(view);
+        return view;
+    }
+
+    private Discussion persist(User user, String username, Discussion discussion) {
         discussion.setTimestamp(new Date());
         discussion.setUser(user);
         if(discussion.getAttachment() != null) {
@@ -41,7 +94,10 @@ public class DiscussionServiceImpl implements DiscussionService {
             inDB.setDiscussion(discussion);
             discussion.setAttachment(inDB);
         }
-        return discussionRepository.save(discussion);
+        Discussion saved = discussionRepository.save(discussion);
+        discussionIdIndex.add(saved.getId(), username);
+        hotFeed.add(saved.getId());
+        return saved;
     }
 
     @Override
@@ -51,16 +107,43 @@ public class DiscussionServiceImpl implements DiscussionService {
 
     @Override
     public Page<Discussion> getDiscussionsOfUser(String username, Pageable pageable) {
-        User inDB = userService.getByUsername(username);
-        return discussionRepository.findByUser(inDB, pageable);
+        return discussionRepository.findByUserId(userService.getIdByUsername(username), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DiscussionView> getDiscussionViews(Pageable pageable) {
+        return hotFeed.getPage(pageable).orElseGet(() -> discussionRepository.findAllViews(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DiscussionView> getDiscussionViewsOfUser(String username, Pageable pageable) {
+        return discussionRepository.findViewsByUserId(userService.getIdByUsername(username), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageVM<DiscussionView> getDiscussionFeed(String cursor, String username, int size) {
+        Long before = Cursor.decode(cursor);
+        Specification<Discussion> spec = Specification.where(before == null ? null : idLessThan(before));
+        if (username != null) {
+            spec = spec.and(userIdIs(userService.getIdByUsername(username)));
+        }
+        List<DiscussionView> discussions = discussionRepository.findViewsNewestFirst(spec, size + 1);
+        String nextCursor = null;
+        if (discussions.size() > size) {
+            discussions = discussions.subList(0, size);
+            nextCursor = Cursor.encode(discussions.get(size - 1).getId());
+        }
+        return new CursorPageVM<>(discussions, size, nextCursor);
     }
 
     @Override
     public Page<Discussion> getOldDiscussions(long id, String username, Pageable pageable) {
         Specification<Discussion> spec = Specification.where(idLessThan(id));
         if (username != null) {
-            User inDB = userService.getByUsername(username);
-            spec = spec.and(userIs(inDB));
+            spec = spec.and(userIdIs(userService.getIdByUsername(username)));
         }
         return discussionRepository.findAll(spec, pageable);
     }
@@ -69,40 +152,36 @@ public class DiscussionServiceImpl implements DiscussionService {
     public List<Discussion> getNewDiscussions(long id, String username, Pageable pageable) {
         Specification<Discussion> spec = Specification.where(idGreaterThan(id));
         if (username != null) {
-            User inDB = userService.getByUsername(username);
-            spec = spec.and(userIs(inDB));
+            spec = spec.and(userIdIs(userService.getIdByUsername(username)));
         }
         return discussionRepository.findAll(spec, pageable.getSort());
     }
 
     @Override
     public long getNewDiscussionsCount(long id, String username) {
+        OptionalLong indexed = discussionIdIndex.countAfter(id, username);
+        if (indexed.isPresent()) {
+            return indexed.getAsLong();
+        }
         Specification<Discussion> spec = Specification.where(idGreaterThan(id));
         if (username != null) {
-            User inDB = userService.getByUsername(username);
-            spec = spec.and(userIs(inDB));
+            spec = spec.and(userIdIs(userService.getIdByUsername(username)));
         }
         return discussionRepository.count(spec);
     }
 
     @Override
+    @Transactional
     public void deleteDiscussion(long id) {
         Discussion discussion = discussionRepository.getById(id);
+        String username = discussion.getUser() != null ? discussion.getUser().getUsername() : null;
         if(discussion.getAttachment() != null) {
             fileService.deleteAttachmentImage(discussion.getAttachment().getName());
         }
         discussionRepository.deleteById(id);
-    }
-
-    private Specification<Discussion> userIs(User user) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("user"), user);
-    }
-
-    private Specification<Discussion> idLessThan(long id) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("id"), id);
-    }
-
-    private Specification<Discussion> idGreaterThan(long id) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+        afterCommit(() -> {
+            discussionIdIndex.remove(id, username);
+            hotFeed.remove(id);
+        });
     }
 }
@@ -0,0 +1,269 @@
+package com.discussion.forum.service.impl;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.service.DiscussionStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes new discussions to Server-Sent Events subscribers.
+ * Connections are held by the servlet container in async mode, so idle subscribers cost no thread.
+ * Every subscriber has a small bounded buffer; publishing never blocks, and a subscriber whose
+ * buffer overflows gets a single {@code reset} event telling it to reload instead of the dropped ones.
+ * A write that has not returned within {@code blog.stream-write-timeout} evicts its subscriber and the
+ * dispatcher gets a replacement thread, so a stalled client only loses its own events. The stuck thread
+ * is released when the container's own write timeout fails the socket.
+ */
+@Service
+@EnableScheduling
+public class DiscussionStreamServiceImpl implements DiscussionStreamService {
+
+    private static final String GLOBAL = "";
+    private static final Event RESET = new Event(null, "reset", null, "", null);
+    private static final Event HEARTBEAT = new Event(null, null, "heartbeat", null, null);
+
+    private final ConcurrentMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> draining = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    private final long timeout;
+    private final int bufferSize;
+    private final long writeTimeout;
+    private final int maxStalledWrites;
+    private int stalledWrites;
+
+    private final ObjectMapper objectMapper;
+    private final Counter dropped;
+    private final Counter evicted;
+
+    @Autowired
+    public DiscussionStreamServiceImpl(AppConfiguration appConfiguration, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        int threads = appConfiguration.getStreamDispatchThreads();
+        this.dispatcher = new ThreadPoolExecutor(threads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        this.timeout = appConfiguration.getStreamTimeout().toMillis();
+        this.bufferSize = appConfiguration.getStreamBufferSize();
+        this.writeTimeout = appConfiguration.getStreamWriteTimeout().toNanos();
+        this.maxStalledWrites = appConfiguration.getStreamMaxStalledWrites();
+        this.dropped = meterRegistry.counter("discussions.stream.dropped");
+        this.evicted = meterRegistry.counter("discussions.stream.evicted");
+        Gauge.builder("discussions.stream.subscribers", this, DiscussionStreamServiceImpl::getSubscriberCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(String username) {
+        String key = username == null ? GLOBAL : username;
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(key, emitter);
+        subscribers.compute(key, (k, group) -> {
+            Set<Subscriber> members = group == null ? ConcurrentHashMap.newKeySet() : group;
+            members.add(subscriber);
+            return members;
+        });
+
+        Runnable unsubscribe = () -> unsubscribe(subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    @Override
+    public void publish(DiscussionVM discussion) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(discussion);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        Event event = new Event(String.valueOf(discussion.getId()), "discussion", null, json, MediaType.APPLICATION_JSON);
+        offer(subscribers.get(GLOBAL), event);
+        if (discussion.getUser() != null) {
+            offer(subscribers.get(discussion.getUser().getUsername()), event);
+        }
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Scheduled(fixedRateString = "${blog.stream-heartbeat-interval:30000}")
+    public void heartbeat() {
+        subscribers.values().forEach(group -> offer(group, HEARTBEAT));
+    }
+
+    /**
+     * Evicts subscribers whose current write has been blocked for longer than the write timeout.
+     */
+    @Scheduled(fixedDelayString = "${blog.stream-write-check-interval:1000}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : draining) {
+            synchronized (subscriber) {
+                long since = subscriber.writeStarted;
+                if (subscriber.stalled || since == 0 || now - since < writeTimeout || !draining.contains(subscriber)) {
+                    continue;
+                }
+                subscriber.stalled = true;
+                unsubscribe(subscriber);
+                subscriber.buffer.clear();
+                evicted.increment();
+                resizeDispatcher(1);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.key, (k, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    private void offer(Set<Subscriber> group, Event event) {
+        if (group == null) {
+            return;
+        }
+        for (Subscriber subscriber : group) {
+            if (!subscriber.buffer.offer(event)) {
+                subscriber.overflowed.set(true);
+                dropped.increment();
+            }
+            if (subscriber.scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        draining.add(subscriber);
+        boolean failed = false;
+        try {
+            Event event;
+            while (!subscriber.closed && (event = subscriber.buffer.poll()) != null) {
+                if (subscriber.overflowed.compareAndSet(true, false)) {
+                    subscriber.buffer.clear();
+                    event = RESET;
+                }
+                subscriber.writeStarted = System.nanoTime();
+                subscriber.emitter.send(event.build());
+                subscriber.writeStarted = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            failed = true;
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            boolean stalled;
+            synchronized (subscriber) {
+                subscriber.writeStarted = 0;
+                draining.remove(subscriber);
+                stalled = subscriber.stalled;
+            }
+            if (stalled) {
+                resizeDispatcher(-1);
+                if (!failed) {
+                    subscriber.emitter.complete();
+                }
+            }
+            subscriber.scheduled.set(false);
+            if (!subscriber.closed && !subscriber.buffer.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Adds or removes a dispatcher thread for a stalled write, up to {@code blog.stream-max-stalled-writes}.
+     */
+    private synchronized void resizeDispatcher(int delta) {
+        int replaced = Math.min(stalledWrites, maxStalledWrites);
+        stalledWrites += delta;
+        int change = Math.min(stalledWrites, maxStalledWrites) - replaced;
+        if (change != 0) {
+            dispatcher.setCorePoolSize(dispatcher.getCorePoolSize() + change);
+        }
+    }
+
+    private final class Subscriber {
+        final String key;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Event> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean overflowed = new AtomicBoolean();
+        volatile boolean closed;
+        volatile long writeStarted;
+        boolean stalled;
+
+        Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * An event rendered once and shared by all subscribers. {@link SseEmitter.SseEventBuilder} is stateful,
+     * so a fresh builder is filled from the rendered parts for every send.
+     */
+    private static final class Event {
+        final String id;
+        final String name;
+        final String comment;
+        final String data;
+        final MediaType mediaType;
+
+        Event(String id, String name, String comment, String data, MediaType mediaType) {
+            this.id = id;
+            this.name = name;
+            this.comment = comment;
+            this.data = data;
+            this.mediaType = mediaType;
+        }
+
+        SseEmitter.SseEventBuilder build() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (id != null) {
+                builder.id(id);
+            }
+            if (name != null) {
+                builder.name(name);
+            }
+            if (comment != null) {
+                builder.comment(comment);
+            }
+            if (data != null) {
+                builder.data(data, mediaType);
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.discussion.forum.service.impl;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.service.BlobStore;
+import com.discussion.forum.service.FileDeletionQueue;
+import com.discussion.forum.service.ImageVariantService;
+import com.discussion.forum.utils.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Unlinks released files on a background thread instead of in the request that released them.
+ * Every deletion is appended to a log before it is queued ({@code A <seq> <folder> <name>}) and marked done
+ * once it has run ({@code C <seq>}), so deletions still pending at shutdown are replayed on the next start.
+ * A last line without its newline was torn by a crash and is ignored.
+ * A failed variant unlink is retried with the file, which is already gone by then and unlinks as a no-op.
+ * Deletions requested inside a transaction are only logged once it commits.
+ */
+@Service
+public class FileDeletionQueueImpl implements FileDeletionQueue {
+
+    private static final long COMPACT_THRESHOLD = 1024 * 1024;
+
+    private final AppConfiguration appConfiguration;
+    private final BlobStore blobStore;
+    private final ImageVariantService imageVariantService;
+
+    private final Object lock = new Object();
+    private final Object drainLock = new Object();
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+    private long nextSequence = 1;
+    private Path logPath;
+    private FileChannel log;
+    private ScheduledExecutorService worker;
+
+    private final Counter queued;
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter logErrors;
+
+    @Autowired
+    public FileDeletionQueueImpl(AppConfiguration appConfiguration, BlobStore blobStore,
+                                 ImageVariantService imageVariantService, MeterRegistry meterRegistry) {
+        this.appConfiguration = appConfiguration;
+        this.blobStore = blobStore;
+        this.imageVariantService = imageVariantService;
+        this.queued = meterRegistry.counter("files.deletion.queued");
+        this.completed = meterRegistry.counter("files.deletion.completed");
+        this.retried = meterRegistry.counter("files.deletion.retried");
+        this.failed = meterRegistry.counter("files.deletion.failed");
+        this.logErrors = meterRegistry.counter("files.deletion.log.errors");
+        meterRegistry.gauge("files.deletion.pending", this, FileDeletionQueueImpl::pending);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        logPath = Paths.get(appConfiguration.getDeletionQueuePath()).toAbsolutePath();
+        Files.createDirectories(logPath.getParent());
+        synchronized (lock) {
+            if (Files.exists(logPath)) {
+                List<String> lines = new ArrayList<>(Arrays.asList(
+                        new String(Files.readAllBytes(logPath), StandardCharsets.UTF_8).split("\n", -1)));
+                // either empty after the final newline or a torn write
+                lines.remove(lines.size() - 1);
+                replay(lines);
+            }
+            rewrite();
+        }
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "file-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = appConfiguration.getDeletionQueueInterval().toMillis();
+        worker.scheduleWithFixedDelay(this::drainQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        worker.shutdownNow();
+        synchronized (lock) {
+            log.close();
+        }
+    }
+
+    @Override
+    public void enqueue(String folder, String name) {
+        if (name == null) {
+            return;
+        }
+        Transactions.afterCommit(() -> append(folder, name));
+    }
+
+    @Override
+    public void drain() {
+        synchronized (drainLock) {
+            while (true) {
+                long now = System.currentTimeMillis();
+                List<Entry> batch;
+                synchronized (lock) {
+                    batch = pending.values().stream()
+                            .filter(entry -> entry.notBefore <= now)
+                            .limit(appConfiguration.getDeletionQueueBatchSize())
+                            .collect(Collectors.toList());
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Long> done = new ArrayList<>(batch.size());
+                for (Entry entry : batch) {
+                    if (delete(entry)) {
+                        done.add(entry.sequence);
+                    }
+                }
+                synchronized (lock) {
+                    done.forEach(pending::remove);
+                    StringBuilder lines = new StringBuilder();
+                    done.forEach(sequence -> lines.append("C ").append(sequence).append('\n'));
+                    write(lines.toString());
+                    compact();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int pending() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private boolean delete(Entry entry) {
+        try {
+            if (blobStore.unlinkIfUnreferenced(entry.folder, entry.name)) {
+                imageVariantService.deleteVariants(entry.folder, entry.name);
+            }
+            completed.increment();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            entry.attempts++;
+            if (entry.attempts >= appConfiguration.getDeletionQueueMaxAttempts()) {
+                failed.increment();
+                return true;
+            }
+            long delay = appConfiguration.getDeletionQueueRetryDelay().toMillis() << Math.min(entry.attempts - 1, 16);
+            entry.notBefore = System.currentTimeMillis() + delay;
+            retried.increment();
+            return false;
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+    }
+
+    private void append(String folder, String name) {
+        synchronized (lock) {
+            Entry entry = new Entry(nextSequence++, folder, name);
+            write("A " + entry.sequence + " " + folder + " " + name + "\n");
+            pending.put(entry.sequence, entry);
+        }
+        queued.increment();
+    }
+
+    private void replay(List<String> lines) {
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            try {
+                if (parts.length == 4 && parts[0].equals("A")) {
+                    long sequence = Long.parseLong(parts[1]);
+                    pending.put(sequence, new Entry(sequence, parts[2], parts[3]));
+                    nextSequence = Math.max(nextSequence, sequence + 1);
+                } else if (parts.length == 2 && parts[0].equals("C")) {
+                    pending.remove(Long.parseLong(parts[1]));
+                }
+            } catch (NumberFormatException e) {
+                // corrupted line, the entry was never acknowledged
+            }
+        }
+    }
+
+    private void write(String lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            logErrors.increment();
+        }
+    }
+
+    private void compact() {
+        try {
+            if (pending.isEmpty()) {
+                log.truncate(0);
+            } else if (log.size() > COMPACT_THRESHOLD) {
+                rewrite();
+            }
+        } catch (IOException e) {
+            logErrors.increment();
+        }
+    }
+
+    private void rewrite() throws IOException {
+        Path temp = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+        StringBuilder lines = new StringBuilder();
+        pending.values().forEach(entry -> lines.append("A ").append(entry.sequence).append(' ')
+                .append(entry.folder).append(' ').append(entry.name).append('\n'));
+        Files.write(temp, lines.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        if (log != null) {
+            log.close();
+        }
+        Files.move(temp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static class Entry {
+        final long sequence;
+        final String folder;
+        final String name;
+        int attempts;
+        long notBefore;
+
+        Entry(long sequence, String folder, String name) {
+            this.sequence = sequence;
+            this.folder = folder;
+            this.name = name;
+        }
+    }
+}
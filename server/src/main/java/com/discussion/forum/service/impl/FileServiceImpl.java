@@ -2,24 +2,35 @@ package com.discussion.forum.service.impl;
 
 import com.discussion.forum.configuration.AppConfiguration;
 import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.exception.BadRequestException;
 import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.service.BlobStore;
+import com.discussion.forum.service.FileDeletionQueue;
 import com.discussion.forum.service.FileService;
-import org.apache.commons.io.FileUtils;
+import com.discussion.forum.service.ImageVariantService;
+import com.discussion.forum.utils.MagicBytes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @EnableScheduling
@@ -27,52 +38,91 @@ public class FileServiceImpl implements FileService {
 
     AppConfiguration appConfiguration;
     private final FileAttachmentRepository fileAttachmentRepository;
+    private final BlobStore blobStore;
+    private final ImageVariantService imageVariantService;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer orphanSweeps;
+    private final Counter orphansDeleted;
+    private final Counter orphanFilesReleased;
+    private final Counter orphanSweepsTruncated;
+
+    private static final int BASE64_HEAD_LENGTH = 16 * 1024;
+    private static final int BASE64_SIGNATURE_LENGTH = MagicBytes.HEADER_LENGTH / 3 * 4;
 
     Tika tika;
 
     @Autowired
-    public FileServiceImpl(AppConfiguration appConfiguration, FileAttachmentRepository fileAttachmentRepository) {
+    public FileServiceImpl(AppConfiguration appConfiguration, FileAttachmentRepository fileAttachmentRepository,
+                           BlobStore blobStore, ImageVariantService imageVariantService,
+                           FileDeletionQueue fileDeletionQueue, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
         this.appConfiguration = appConfiguration;
         this.fileAttachmentRepository = fileAttachmentRepository;
+        this.blobStore = blobStore;
+        this.imageVariantService = imageVariantService;
+        this.fileDeletionQueue = fileDeletionQueue;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         tika = new Tika();
+        this.orphanSweeps = meterRegistry.timer("attachments.orphans.sweep");
+        this.orphansDeleted = meterRegistry.counter("attachments.orphans.deleted");
+        this.orphanFilesReleased = meterRegistry.counter("attachments.orphans.files.released");
+        this.orphanSweepsTruncated = meterRegistry.counter("attachments.orphans.sweep.truncated");
     }
 
     @Override
     public String saveProfileImage(String base64Image) throws IOException {
-        String imageName = getRandomName();
-
-        byte[] decodedBytes = Base64.getDecoder().decode(base64Image);
-        File target = new File(appConfiguration.getFullProfileImagesPath() + "/" + imageName);
-        FileUtils.writeByteArrayToFile(target, decodedBytes);
-        return imageName;
+        InputStream decoded = new Base64DecodingInputStream(base64Image);
+        String name;
+        try {
+            name = blobStore.store(appConfiguration.getProfileImagesFolder(), decoded, Long.MAX_VALUE).getName();
+        } catch (InvalidBase64Exception e) {
+            // validation only decodes the head, the rest is checked while streaming
+            throw new BadRequestException("Image is not valid Base64");
+        }
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        return name;
     }
 
     @Override
     public String detectType(byte[] fileArr) {
-        return tika.detect(fileArr);
+        String type = MagicBytes.detect(fileArr);
+        return type != null ? type : tika.detect(fileArr);
+    }
+
+    @Override
+    public String detectBase64Type(String base64Image) {
+        if (base64Image.length() >= BASE64_SIGNATURE_LENGTH) {
+            String type = MagicBytes.detect(Base64.getDecoder().decode(base64Image.substring(0, BASE64_SIGNATURE_LENGTH)));
+            if (type != null) {
+                return type;
+            }
+        }
+        String head = base64Image.length() > BASE64_HEAD_LENGTH ? base64Image.substring(0, BASE64_HEAD_LENGTH) : base64Image;
+        return tika.detect(Base64.getDecoder().decode(head));
     }
 
     @Override
     public void deleteProfileImage(String image) {
-        try {
-            Files.deleteIfExists(Paths.get(appConfiguration.getFullProfileImagesPath() + "/" + image));
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (blobStore.releaseReference(appConfiguration.getProfileImagesFolder(), image)) {
+            fileDeletionQueue.enqueue(appConfiguration.getProfileImagesFolder(), image);
         }
     }
 
     @Override
-    public FileAttachment saveAttachment(MultipartFile file) {
+    public FileAttachment saveAttachment(InputStreamSource file) {
         FileAttachment fileAttachment = new FileAttachment();
         fileAttachment.setDate(new Date());
-        String randomName = getRandomName();
-        fileAttachment.setName(randomName);
 
-        File target = new File(appConfiguration.getFullAttachmentsPath() + "/" + randomName);
         try {
-            byte[] fileAsByte = file.getBytes();
-            FileUtils.writeByteArrayToFile(target, fileAsByte);
-            fileAttachment.setFileType(detectType(fileAsByte));
+            BlobStore.Blob blob = blobStore.store(appConfiguration.getAttachmentsFolder(), file.getInputStream(),
+                    appConfiguration.getMaxAttachmentSize().toBytes());
+            fileAttachment.setName(blob.getName());
+            fileAttachment.setFileType(detectType(blob.getHead()));
+            if (fileAttachment.getFileType().startsWith("image/")) {
+                imageVariantService.generateVariants(appConfiguration.getAttachmentsFolder(), blob.getName());
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -80,27 +130,133 @@ public class FileServiceImpl implements FileService {
         return fileAttachmentRepository.save(fileAttachment);
     }
 
+    /**
+     * Deletes attachments that were uploaded but never attached to a discussion.
+     * Orphans are walked by id in batches. Each batch is removed with one statement, and its file references are
+     * released in the same short transaction; the files themselves are unlinked by the deletion queue after commit.
+     * A run stops starting new batches once its time budget is spent.
+     */
+    @Override
     @Scheduled(fixedRate = 60 * 60 * 1000)
     public void cleanupStorage() {
-//        Date oneHourAgo = new Date(System.currentTimeMillis() - (60*60*1000));
-//        List<FileAttachment> oldFiles = fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(oneHourAgo);
-//        for(FileAttachment file: oldFiles) {
-//            deleteAttachmentImage(file.getName());
-//            fileAttachmentRepository.deleteById(file.getId());
-//        }
+        orphanSweeps.record(this::sweepOrphans);
+    }
+
+    private void sweepOrphans() {
+        long deadline = System.nanoTime() + appConfiguration.getOrphanCleanupBudget().toNanos();
+        Date cutoff = new Date(System.currentTimeMillis() - appConfiguration.getOrphanAttachmentAge().toMillis());
+        int batchSize = appConfiguration.getOrphanCleanupBatchSize();
+        long afterId = 0;
+        while (true) {
+            if (System.nanoTime() - deadline > 0) {
+                orphanSweepsTruncated.increment();
+                return;
+            }
+            List<FileAttachmentRepository.OrphanAttachment> batch =
+                    fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(cutoff, afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+            List<Long> ids = batch.stream().map(FileAttachmentRepository.OrphanAttachment::getId).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> deleteBatch(batch, ids));
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void deleteBatch(List<FileAttachmentRepository.OrphanAttachment> batch, List<Long> ids) {
+        int deleted = fileAttachmentRepository.deleteOrphansByIdIn(ids);
+        Set<Long> attachedMeanwhile = deleted == ids.size()
+                ? Collections.emptySet()
+                : new HashSet<>(fileAttachmentRepository.findIdsByIdIn(ids));
+        int released = 0;
+        for (FileAttachmentRepository.OrphanAttachment orphan : batch) {
+            if (orphan.getName() != null && !attachedMeanwhile.contains(orphan.getId())) {
+                deleteAttachmentImage(orphan.getName());
+                released++;
+            }
+        }
+        orphansDeleted.increment(deleted);
+        orphanFilesReleased.increment(released);
     }
 
     @Override
     public void deleteAttachmentImage(String image) {
-        try {
-            Files.deleteIfExists(Paths.get(appConfiguration.getFullAttachmentsPath()+"/"+image));
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (blobStore.releaseReference(appConfiguration.getAttachmentsFolder(), image)) {
+            fileDeletionQueue.enqueue(appConfiguration.getAttachmentsFolder(), image);
         }
     }
 
-    private String getRandomName() {
-        return UUID.randomUUID().toString().replaceAll("-", "");
+    /**
+     * Decodes a Base64 string a chunk at a time into a reused buffer, so the decoded image
+     * never has to be held in memory as a whole.
+     */
+    private static class InvalidBase64Exception extends IOException {
+        private static final long serialVersionUID = -3811287516095468322L;
+
+        InvalidBase64Exception(IllegalArgumentException cause) {
+            super(cause);
+        }
     }
 
+    private static class Base64DecodingInputStream extends InputStream {
+        private static final int CHUNK_LENGTH = 64 * 1024;
+
+        private final String text;
+        private final byte[] encoded = new byte[CHUNK_LENGTH];
+        private final byte[] decoded = new byte[CHUNK_LENGTH / 4 * 3];
+        private int textPosition;
+        private int decodedPosition;
+        private int decodedLength;
+
+        Base64DecodingInputStream(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return decoded[decodedPosition++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, decodedLength - decodedPosition);
+            System.arraycopy(decoded, decodedPosition, buffer, offset, count);
+            decodedPosition += count;
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            if (decodedPosition < decodedLength) {
+                return true;
+            }
+            if (textPosition >= text.length()) {
+                return false;
+            }
+            int end = Math.min(textPosition + CHUNK_LENGTH, text.length());
+            byte[] source = end - textPosition == CHUNK_LENGTH ? encoded : new byte[end - textPosition];
+            for (int i = 0; i < source.length; i++) {
+                source[i] = (byte) text.charAt(textPosition + i);
+            }
+            textPosition = end;
+            try {
+                decodedLength = Base64.getDecoder().decode(source, decoded);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidBase64Exception(e);
+            }
+            decodedPosition = 0;
+            return true;
+        }
+    }
 }
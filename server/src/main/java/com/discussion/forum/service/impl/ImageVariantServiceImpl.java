@@ -0,0 +1,230 @@
+package com.discussion.forum.service.impl;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
+import com.discussion.forum.service.ImageVariantService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Produces downscaled copies of uploaded images on a small bounded pool.
+ * Variants live in the sharded layout under {@code <folder>/variants/<size>}. Until they exist the original is served,
+ * and a request for a missing variant schedules it, so images stored before this pipeline catch up on their own.
+ * Files that cannot be decoded or have more than {@code blog.image-variant-max-pixels} pixels are remembered as
+ * unsupported; a failed write is only counted, so the next request retries it.
+ */
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final String VARIANTS_FOLDER = "variants";
+    private static final Pattern IMAGE_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final StorageLayout storageLayout;
+    private final List<Integer> sizes;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> unsupported = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    private final Counter generated;
+    private final Counter dropped;
+    private final Counter unsupportedImages;
+    private final Counter failed;
+    private final long maxPixels;
+
+    @Autowired
+    public ImageVariantServiceImpl(AppConfiguration appConfiguration, StorageLayout storageLayout, MeterRegistry meterRegistry) {
+        this.storageLayout = storageLayout;
+        this.sizes = appConfiguration.getImageVariantSizes().stream().sorted().collect(Collectors.toList());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(appConfiguration.getImageVariantThreads(), appConfiguration.getImageVariantThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(appConfiguration.getImageVariantQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.generated = meterRegistry.counter("images.variants.generated");
+        this.dropped = meterRegistry.counter("images.variants.dropped");
+        this.unsupportedImages = meterRegistry.counter("images.variants.unsupported");
+        this.failed = meterRegistry.counter("images.variants.failed");
+        this.maxPixels = appConfiguration.getImageVariantMaxPixels();
+    }
+
+    @Override
+    public void generateVariants(String folder, String name) {
+        if (!isImageName(name) || unsupported.getIfPresent(folder + "/" + name) != null) {
+            return;
+        }
+        String key = folder + "/" + name;
+        if (!pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeVariants(folder, name);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public OptionalInt selectSize(int size) {
+        return sizes.stream().filter(candidate -> candidate >= size).mapToInt(Integer::intValue).findFirst();
+    }
+
+    @Override
+    public Optional<Path> findVariant(String folder, String name, int size) {
+        OptionalInt variantSize = selectSize(size);
+        if (!isImageName(name) || !variantSize.isPresent()) {
+            return Optional.empty();
+        }
+        Path variant = variantPath(folder, variantSize.getAsInt(), name);
+        if (Files.isRegularFile(variant)) {
+            return Optional.of(variant);
+        }
+        if (storageLayout.locate(folder, name).isPresent()) {
+            generateVariants(folder, name);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void deleteVariants(String folder, String name) throws IOException {
+        if (!isImageName(name)) {
+            return;
+        }
+        for (int size : sizes) {
+            storageLayout.delete(variantFolder(folder, size), name);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void writeVariants(String folder, String name) {
+        Path original = storageLayout.locate(folder, name).orElse(null);
+        if (original == null) {
+            return;
+        }
+        String format;
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                markUnsupported(folder, name);
+                return;
+            }
+            ImageReader reader = readers.next();
+            format = reader.getFormatName().toLowerCase();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    markUnsupported(folder, name);
+                    return;
+                }
+                image = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            markUnsupported(folder, name);
+            return;
+        }
+        for (int size : sizes) {
+            Path target = variantPath(folder, size, name);
+            Path temp = target.resolveSibling(".variant-" + name);
+            try {
+                if (Files.exists(target)) {
+                    continue;
+                }
+                Files.createDirectories(target.getParent());
+                if (Math.max(image.getWidth(), image.getHeight()) <= size) {
+                    Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    ImageIO.write(scale(image, size, format), format, temp.toFile());
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                generated.increment();
+            } catch (IOException e) {
+                // not marked unsupported, a later request for the variant schedules it again and overwrites the temp file
+                failed.increment();
+                return;
+            }
+        }
+    }
+
+    private void markUnsupported(String folder, String name) {
+        unsupported.put(folder + "/" + name, Boolean.TRUE);
+        unsupportedImages.increment();
+    }
+
+    private static BufferedImage scale(BufferedImage image, int size, String format) {
+        int type = format.contains("png") ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        double ratio = (double) size / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private Path variantPath(String folder, int size, String name) {
+        return storageLayout.path(variantFolder(folder, size), name);
+    }
+
+    private static String variantFolder(String folder, int size) {
+        return folder + "/" + VARIANTS_FOLDER + "/" + size;
+    }
+
+    private static boolean isImageName(String name) {
+        return name != null && IMAGE_NAME.matcher(name).matches() && !name.startsWith(".");
+    }
+}
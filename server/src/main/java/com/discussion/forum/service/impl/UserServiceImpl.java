@@ -1,18 +1,32 @@
 package com.discussion.forum.service.impl;
 
+import com.discussion.forum.cache.CredentialsCache;
+import com.discussion.forum.cache.HotFeed;
+import com.discussion.forum.cache.UserDirectory;
+import com.discussion.forum.cache.UserProfileCache;
+import com.discussion.forum.cache.UserSuggestionIndex;
+import com.discussion.forum.cache.UsernameFilter;
+import com.discussion.forum.cache.UsernameIdCache;
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.CursorPageVM;
 import com.discussion.forum.domain.vm.UserUpdateVM;
+import com.discussion.forum.domain.vm.UserVM;
 import com.discussion.forum.exception.NotFoundException;
 import com.discussion.forum.repository.UserRepository;
 import com.discussion.forum.service.FileService;
 import com.discussion.forum.service.UserService;
+import com.discussion.forum.utils.Transactions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,26 +36,60 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final FileService fileService;
+    private final CredentialsCache credentialsCache;
+    private final UsernameIdCache usernameIdCache;
+    private final UserProfileCache userProfileCache;
+    private final UsernameFilter usernameFilter;
+    private final UserDirectory userDirectory;
+    private final UserSuggestionIndex userSuggestionIndex;
+    private final HotFeed hotFeed;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, FileService fileService) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, FileService fileService,
+                           CredentialsCache credentialsCache, UsernameIdCache usernameIdCache,
+                           UserProfileCache userProfileCache, UsernameFilter usernameFilter,
+                           UserDirectory userDirectory, UserSuggestionIndex userSuggestionIndex, HotFeed hotFeed) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.fileService = fileService;
+        this.credentialsCache = credentialsCache;
+        this.usernameIdCache = usernameIdCache;
+        this.userProfileCache = userProfileCache;
+        this.usernameFilter = usernameFilter;
+        this.userDirectory = userDirectory;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.hotFeed = hotFeed;
     }
 
     @Override
     public User save(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        usernameFilter.add(saved.getUsername());
+        credentialsCache.invalidate(saved.getUsername());
+        usernameIdCache.evict(saved.getUsername());
+        userProfileCache.evict(saved.getUsername(), saved.getId());
+        UserVM profile = new UserVM(saved);
+        userDirectory.put(profile);
+        userSuggestionIndex.put(profile);
+        return saved;
     }
 
     @Override
-    public Page<User> getUsers(User loggedInUser, Pageable pageable) {
-        if (loggedInUser != null) {
-            return userRepository.findByUsernameNot(loggedInUser.getUsername(), pageable);
+    public Page<UserVM> getUsers(AuthenticatedUser loggedInUser, Pageable pageable) {
+        Optional<Page<UserVM>> cached = userDirectory.getPage(loggedInUser != null ? loggedInUser.getId() : null, pageable);
+        if (cached.isPresent()) {
+            return cached.get();
         }
-        return userRepository.findAll(pageable);
+        Page<Long> ids = loggedInUser != null
+                ? userRepository.findIdsByUsernameNot(loggedInUser.getUsername(), pageable)
+                : userRepository.findAllIds(pageable);
+        return new PageImpl<>(userProfileCache.getAllById(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public CursorPageVM<UserVM> getUserDirectory(AuthenticatedUser loggedInUser, String cursor, int size) {
+        return userDirectory.getFeed(cursor, loggedInUser != null ? loggedInUser.getId() : null, size);
     }
 
     public User getByUsername(String username) {
@@ -53,6 +101,28 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    public UserVM getProfile(String username) {
+        return userProfileCache.getByUsername(username)
+                .orElseThrow(() -> new NotFoundException(username + " not found"));
+    }
+
+    @Override
+    public List<UserVM> suggestUsers(String query, int size) {
+        return userSuggestionIndex.suggest(query, size);
+    }
+
+    @Override
+    public long getIdByUsername(String username) {
+        return usernameIdCache.getId(username)
+                .orElseThrow(() -> new NotFoundException(username + " not found"));
+    }
+
+    /**
+     * The old image is released with the row update and its unlink is queued after commit,
+     * so a failed save never leaves the user pointing at a deleted file.
+     */
+    @Override
+    @Transactional
     public User update(long id, UserUpdateVM userUpdate) {
         User inDB = userRepository.getById(id);
         inDB.setDisplayName(userUpdate.getDisplayName());
@@ -66,6 +136,15 @@ public class UserServiceImpl implements UserService {
                 e.printStackTrace();
             }
         }
-        return userRepository.save(inDB);
+        User saved = userRepository.save(inDB);
+        UserVM profile = new UserVM(saved);
+        Transactions.afterCommit(() -> {
+            credentialsCache.invalidate(profile.getUsername());
+            userProfileCache.evict(profile.getUsername(), profile.getId());
+            userDirectory.put(profile);
+            userSuggestionIndex.put(profile);
+            hotFeed.updateAuthor(profile);
+        });
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.discussion.forum.utils;
+
+/**
+ * Recognises common file formats from their leading signature bytes without allocating.
+ * Returns the same media types Tika reports for these signatures, or null when the header is not one of them.
+ */
+public class MagicBytes {
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final byte[] JPEG = {(byte) 0xff, (byte) 0xd8, (byte) 0xff};
+    private static final byte[] GIF87A = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89A = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] RIFF = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP = {'W', 'E', 'B', 'P'};
+    private static final byte[] TIFF_LITTLE_ENDIAN = {'I', 'I', '*', 0};
+    private static final byte[] TIFF_BIG_ENDIAN = {'M', 'M', 0, '*'};
+    private static final byte[] PDF = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] OLE2 = {(byte) 0xd0, (byte) 0xcf, 0x11, (byte) 0xe0, (byte) 0xa1, (byte) 0xb1, 0x1a, (byte) 0xe1};
+
+    public static String detect(byte[] bytes) {
+        return detect(bytes, bytes.length);
+    }
+
+    public static String detect(byte[] bytes, int length) {
+        if (startsWith(bytes, length, 0, PNG)) {
+            return "image/png";
+        }
+        if (startsWith(bytes, length, 0, JPEG)) {
+            return "image/jpeg";
+        }
+        if (startsWith(bytes, length, 0, GIF89A) || startsWith(bytes, length, 0, GIF87A)) {
+            return "image/gif";
+        }
+        if (startsWith(bytes, length, 0, RIFF) && startsWith(bytes, length, 8, WEBP)) {
+            return "image/webp";
+        }
+        if (startsWith(bytes, length, 0, TIFF_LITTLE_ENDIAN) || startsWith(bytes, length, 0, TIFF_BIG_ENDIAN)) {
+            return "image/tiff";
+        }
+        if (startsWith(bytes, length, 0, PDF)) {
+            return "application/pdf";
+        }
+        if (startsWith(bytes, length, 0, OLE2)) {
+            return "application/x-tika-msoffice";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int length, int offset, byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (bytes[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -5,7 +5,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
-import java.util.Base64;
 
 public class ProfileImageValidator implements ConstraintValidator<ProfileImage, String> {
     @Autowired
@@ -15,8 +14,7 @@ public class ProfileImageValidator implements ConstraintValidator<ProfileImage,
     public boolean isValid(String value, ConstraintValidatorContext context) {
         if (value == null) return true;
 
-        byte[] decodedBytes = Base64.getDecoder().decode(value);
-        String fileType = fileService.detectType(decodedBytes);
+        String fileType = fileService.detectBase64Type(value);
 
         return fileType.equalsIgnoreCase("image/png") || fileType.equalsIgnoreCase("image/jpeg");
     }
@@ -1,5 +1,6 @@
 package com.discussion.forum.validation;
 
+import com.discussion.forum.cache.UsernameFilter;
 import com.discussion.forum.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -11,8 +12,18 @@ public class UniqueUsernameValidator implements ConstraintValidator<UniqueUserna
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UsernameFilter usernameFilter;
+
     @Override
     public boolean isValid(String value, ConstraintValidatorContext constraintValidatorContext) {
-        return !userRepository.findByUsername(value).isPresent();
+        if (!usernameFilter.mightContain(value)) {
+            return true;
+        }
+        if (userRepository.findIdByUsername(value).isPresent()) {
+            return false;
+        }
+        usernameFilter.recordFalsePositive();
+        return true;
     }
 }
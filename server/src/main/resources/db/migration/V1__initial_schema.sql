@@ -0,0 +1,30 @@
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table user (
+    id bigint not null,
+    display_name varchar(255),
+    image varchar(255),
+    password varchar(255),
+    username varchar(255),
+    primary key (id)
+);
+
+create table discussion (
+    id bigint not null,
+    content varchar(5000),
+    timestamp timestamp,
+    user_id bigint,
+    primary key (id)
+);
+
+create table file_attachment (
+    id bigint not null,
+    date timestamp,
+    file_type varchar(255),
+    name varchar(255),
+    discussion_id bigint,
+    primary key (id)
+);
+
+alter table discussion add constraint FK2t0n9y82hsec0vpyll58gu4ph foreign key (user_id) references user;
+alter table file_attachment add constraint FKcsgod1qamhabvadu0txl4ikme foreign key (discussion_id) references discussion;
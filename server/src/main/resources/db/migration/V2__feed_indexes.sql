@@ -0,0 +1,5 @@
+create unique index idx_user_username on user (username);
+
+create index idx_discussion_user_id_id on discussion (user_id, id);
+
+create index idx_file_attachment_date_discussion_id on file_attachment (date, discussion_id);
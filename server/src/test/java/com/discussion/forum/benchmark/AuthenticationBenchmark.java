@@ -0,0 +1,75 @@
+package com.discussion.forum.benchmark;
+
+import com.discussion.forum.cache.CredentialsCache;
+import com.discussion.forum.configuration.AccessTokenService;
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.CachingAuthenticationProvider;
+import com.discussion.forum.domain.AuthenticatedUser;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.utils.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of authenticating one request with HTTP Basic (plain and with the
+ * credentials cache) against verifying a signed access token. The user lookup is served
+ * from memory so only the authentication work itself is measured.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AuthenticationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    DaoAuthenticationProvider basicProvider;
+    CachingAuthenticationProvider cachingProvider;
+    AccessTokenService accessTokenService;
+    String token;
+
+    @Setup
+    public void setup() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        User user = TestUtil.createValidUser();
+        user.setId(1);
+        user.setPassword(passwordEncoder.encode(TestUtil.PASSWORD));
+
+        AppConfiguration appConfiguration = new AppConfiguration();
+
+        basicProvider = new DaoAuthenticationProvider();
+        basicProvider.setPasswordEncoder(passwordEncoder);
+        basicProvider.setUserDetailsService(username -> user);
+
+        cachingProvider = new CachingAuthenticationProvider(new CredentialsCache(appConfiguration, new SimpleMeterRegistry()));
+        cachingProvider.setPasswordEncoder(passwordEncoder);
+        cachingProvider.setUserDetailsService(username -> user);
+
+        accessTokenService = new AccessTokenService(appConfiguration);
+        token = accessTokenService.createToken(AuthenticatedUser.of(user));
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return basicProvider.authenticate(new UsernamePasswordAuthenticationToken(TestUtil.USERNAME, TestUtil.PASSWORD));
+    }
+
+    @Benchmark
+    public Authentication basicWithCredentialsCache() {
+        return cachingProvider.authenticate(new UsernamePasswordAuthenticationToken(TestUtil.USERNAME, TestUtil.PASSWORD));
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> token() {
+        return accessTokenService.verifyToken(token);
+    }
+}
@@ -0,0 +1,72 @@
+package com.discussion.forum.benchmark;
+
+import com.discussion.forum.utils.MagicBytes;
+import org.apache.commons.io.FileUtils;
+import org.apache.tika.Tika;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Tika's detection against the signature check with Tika as fallback, on the 8KB upload head
+ * that attachment detection sees. {@code txt} has no known signature and measures the fallback path.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ContentTypeDetectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentTypeDetectionBenchmark {
+
+    private static final int HEAD_SIZE = 8 * 1024;
+
+    @Param({"png", "jpeg", "gif", "webp", "pdf", "txt"})
+    String format;
+
+    Tika tika;
+    byte[] head;
+
+    @Setup
+    public void setup() throws IOException {
+        tika = new Tika();
+        byte[] file;
+        switch (format) {
+            case "png":
+                file = FileUtils.readFileToByteArray(new ClassPathResource("test-png.png").getFile());
+                break;
+            case "jpeg":
+                file = FileUtils.readFileToByteArray(new ClassPathResource("test-jpg.jpg").getFile());
+                break;
+            case "gif":
+                file = FileUtils.readFileToByteArray(new ClassPathResource("test-gif.gif").getFile());
+                break;
+            case "webp":
+                file = "RIFF\0\0\0\0WEBPVP8 ".getBytes(StandardCharsets.ISO_8859_1);
+                break;
+            case "pdf":
+                file = "%PDF-1.4\n".getBytes(StandardCharsets.ISO_8859_1);
+                break;
+            default:
+                file = FileUtils.readFileToByteArray(new ClassPathResource("test-txt.txt").getFile());
+        }
+        head = Arrays.copyOf(file, HEAD_SIZE);
+    }
+
+    @Benchmark
+    public String tika() {
+        return tika.detect(head);
+    }
+
+    @Benchmark
+    public String magicBytes() {
+        String type = MagicBytes.detect(head);
+        return type != null ? type : tika.detect(head);
+    }
+}
@@ -0,0 +1,84 @@
+package com.discussion.forum.benchmark;
+
+import com.discussion.forum.BlogApplication;
+import com.discussion.forum.domain.Discussion;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.DiscussionVM;
+import com.discussion.forum.domain.vm.DiscussionView;
+import com.discussion.forum.repository.DiscussionRepository;
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.service.DiscussionService;
+import com.discussion.forum.utils.TestUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serving one feed page through managed entities mapped to {@link DiscussionVM}
+ * against the constructor-expression projection into {@link DiscussionView}.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FeedReadPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedReadPathBenchmark {
+
+    @Param({"20", "100"})
+    int size;
+
+    ConfigurableApplicationContext context;
+    DiscussionService discussionService;
+    Pageable pageable;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(BlogApplication.class)
+                .profiles("test")
+                .run("--server.port=0");
+        discussionService = context.getBean(DiscussionService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        DiscussionRepository discussionRepository = context.getBean(DiscussionRepository.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(userRepository.save(TestUtil.createValidUser("bench-user" + i)));
+        }
+        List<Discussion> discussions = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Discussion discussion = TestUtil.createValidDiscussion();
+            discussion.setTimestamp(new Date());
+            discussion.setUser(users.get(i % users.size()));
+            discussions.add(discussion);
+        }
+        discussionRepository.saveAll(discussions);
+        pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DiscussionVM> entityPath() {
+        return discussionService.getAllDiscussions(pageable).map(DiscussionVM::new);
+    }
+
+    @Benchmark
+    public Page<DiscussionView> projectionPath() {
+        return discussionService.getDiscussionViews(pageable);
+    }
+}
@@ -0,0 +1,109 @@
+package com.discussion.forum.benchmark;
+
+import com.discussion.forum.BlogApplication;
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares fetching one stored image over HTTP through the generic resource handler, which sits behind
+ * the security filter chain, against the dedicated image handler.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ImageServingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ImageServingBenchmark {
+
+    private static final String NAME = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Param({"4096", "262144"})
+    int fileSize;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    HttpRequest resourceHandlerRequest;
+    HttpRequest imageHandlerRequest;
+    Path flat;
+    Path sharded;
+
+    @Setup
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(BlogApplication.class, ResourceHandlerConfiguration.class)
+                .profiles("test")
+                .run("--server.port=0");
+        AppConfiguration appConfiguration = context.getBean(AppConfiguration.class);
+        StorageLayout storageLayout = context.getBean(StorageLayout.class);
+        byte[] content = new byte[fileSize];
+        new Random(1).nextBytes(content);
+        flat = storageLayout.legacyPath(appConfiguration.getAttachmentsFolder(), NAME);
+        sharded = storageLayout.path(appConfiguration.getAttachmentsFolder(), NAME);
+        Files.createDirectories(sharded.getParent());
+        Files.write(flat, content);
+        Files.write(sharded, content);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        resourceHandlerRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/legacy-images/"
+                + appConfiguration.getAttachmentsFolder() + "/" + NAME)).build();
+        imageHandlerRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/images/"
+                + appConfiguration.getAttachmentsFolder() + "/" + NAME)).build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(flat);
+        Files.deleteIfExists(sharded);
+    }
+
+    @Benchmark
+    public int resourceHandler() throws IOException, InterruptedException {
+        return client.send(resourceHandlerRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int imageHandler() throws IOException, InterruptedException {
+        return client.send(imageHandlerRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * The resource handler setup that served {@code /images/**} before the dedicated handler.
+     */
+    public static class ResourceHandlerConfiguration implements WebMvcConfigurer {
+
+        private final AppConfiguration appConfiguration;
+
+        public ResourceHandlerConfiguration(AppConfiguration appConfiguration) {
+            this.appConfiguration = appConfiguration;
+        }
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/legacy-images/**")
+                    .addResourceLocations("file:" + appConfiguration.getUploadPath() + "/")
+                    .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.discussion.forum.benchmark;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.service.BlobStore;
+import com.discussion.forum.service.FileDeletionQueue;
+import com.discussion.forum.service.FileService;
+import com.discussion.forum.service.ImageVariantService;
+import com.discussion.forum.service.impl.FileServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.apache.tika.Tika;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares validating and saving a Base64 profile image the old way (decode fully for Tika, then decode
+ * fully again to write) against sniffing a decoded prefix and streaming one decode into the store.
+ * The store drains into a null stream so only decoding and detection are measured.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ProfileImageDecodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileImageDecodeBenchmark {
+
+    @Param({"262144", "4194304"})
+    int imageSize;
+
+    String base64Image;
+    Tika tika;
+    FileService fileService;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] png = FileUtils.readFileToByteArray(new ClassPathResource("test-png.png").getFile());
+        byte[] image = new byte[imageSize];
+        new Random(42).nextBytes(image);
+        System.arraycopy(png, 0, image, 0, Math.min(png.length, image.length));
+        base64Image = Base64.getEncoder().encodeToString(image);
+        tika = new Tika();
+
+        AppConfiguration appConfiguration = new AppConfiguration();
+        appConfiguration.setUploadPath("uploads-test");
+        fileService = new FileServiceImpl(appConfiguration, Mockito.mock(FileAttachmentRepository.class), new BlobStore() {
+            @Override
+            public Blob store(String folder, InputStream inputStream, long maxSize) throws IOException {
+                inputStream.transferTo(OutputStream.nullOutputStream());
+                return new Blob("blob", new byte[0]);
+            }
+
+            @Override
+            public boolean release(String folder, String name) {
+                return false;
+            }
+
+            @Override
+            public boolean releaseReference(String folder, String name) {
+                return false;
+            }
+
+            @Override
+            public boolean unlinkIfUnreferenced(String folder, String name) {
+                return false;
+            }
+        }, Mockito.mock(ImageVariantService.class), Mockito.mock(FileDeletionQueue.class),
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String decodeTwice() throws IOException {
+        String type = tika.detect(Base64.getDecoder().decode(base64Image));
+        OutputStream.nullOutputStream().write(Base64.getDecoder().decode(base64Image));
+        return type;
+    }
+
+    @Benchmark
+    public String sniffThenStream() throws IOException {
+        String type = fileService.detectBase64Type(base64Image);
+        fileService.saveProfileImage(base64Image);
+        return type;
+    }
+}
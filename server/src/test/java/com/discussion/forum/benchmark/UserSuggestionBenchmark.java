@@ -0,0 +1,66 @@
+package com.discussion.forum.benchmark;
+
+import com.discussion.forum.cache.UserSuggestionIndex;
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.UserRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Samples {@code UserSuggestionIndex.suggest} latency for one- to three-letter prefixes, the worst case for a
+ * prefix scan, over a directory of generated users. Read the p0.99 line of the output.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=UserSuggestionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSuggestionBenchmark {
+
+    private static final String[] WORDS = {"martin", "bernard", "dubois", "thomas", "robert", "richard", "petit",
+            "durand", "leroy", "moreau", "simon", "laurent", "lefebvre", "michel", "garcia", "david", "bertrand",
+            "roux", "vincent", "fournier", "morel", "girard", "andre", "lefevre", "mercier", "dupont", "lambert"};
+
+    @Param({"100000"})
+    int users;
+
+    UserSuggestionIndex index;
+    String[] queries;
+    int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.streamProfilesOrderById()).thenAnswer(invocation -> LongStream.rangeClosed(1, users)
+                .mapToObj(id -> new UserVM(id, WORDS[(int) (id % WORDS.length)] + id,
+                        capitalize(WORDS[random.nextInt(WORDS.length)]) + " " + capitalize(WORDS[random.nextInt(WORDS.length)]),
+                        null)));
+        index = new UserSuggestionIndex(userRepository, Mockito.mock(PlatformTransactionManager.class));
+        index.reload();
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            queries[i] = word.substring(0, 1 + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public List<UserVM> suggest() {
+        next = (next + 1) & (queries.length - 1);
+        return index.suggest(queries[next], 10);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
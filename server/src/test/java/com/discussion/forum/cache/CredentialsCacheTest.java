@@ -0,0 +1,54 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CredentialsCacheTest {
+
+    CredentialsCache credentialsCache;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        credentialsCache = new CredentialsCache(new AppConfiguration(), meterRegistry);
+    }
+
+    @Test
+    public void isVerified_whenCredentialsWereVerified_returnsTrue() {
+        credentialsCache.put("user1", "P4ssword", "hash");
+        Assertions.assertTrue(credentialsCache.isVerified("user1", "P4ssword", "hash"));
+    }
+
+    @Test
+    public void isVerified_whenPasswordDiffers_returnsFalse() {
+        credentialsCache.put("user1", "P4ssword", "hash");
+        Assertions.assertFalse(credentialsCache.isVerified("user1", "Wrong123", "hash"));
+    }
+
+    @Test
+    public void isVerified_whenStoredHashChanged_returnsFalse() {
+        credentialsCache.put("user1", "P4ssword", "hash");
+        Assertions.assertFalse(credentialsCache.isVerified("user1", "P4ssword", "new-hash"));
+    }
+
+    @Test
+    public void isVerified_afterUserInvalidated_returnsFalse() {
+        credentialsCache.put("user1", "P4ssword", "hash");
+        credentialsCache.invalidate("user1");
+        Assertions.assertFalse(credentialsCache.isVerified("user1", "P4ssword", "hash"));
+    }
+
+    @Test
+    public void isVerified_whenCalled_recordsHitAndMissMetrics() {
+        credentialsCache.isVerified("user1", "P4ssword", "hash");
+        credentialsCache.put("user1", "P4ssword", "hash");
+        credentialsCache.isVerified("user1", "P4ssword", "hash");
+        Assertions.assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "credentials").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "credentials").tag("result", "miss").functionCounter().count());
+    }
+}
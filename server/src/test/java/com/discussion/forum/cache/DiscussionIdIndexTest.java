@@ -0,0 +1,80 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.DiscussionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+
+public class DiscussionIdIndexTest {
+
+    DiscussionIdIndex discussionIdIndex;
+
+    @BeforeEach
+    public void init() {
+        AppConfiguration appConfiguration = new AppConfiguration();
+        appConfiguration.setDiscussionIndexSize(5);
+        DiscussionRepository discussionRepository = Mockito.mock(DiscussionRepository.class);
+        Mockito.when(discussionRepository.findLatestIds(Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+        discussionIdIndex = new DiscussionIdIndex(discussionRepository, appConfiguration);
+    }
+
+    @Test
+    public void countAfter_beforeIndexIsLoaded_returnsEmpty() {
+        Assertions.assertFalse(discussionIdIndex.countAfter(0, null).isPresent());
+    }
+
+    @Test
+    public void countAfter_whenDiscussionsAdded_returnsNumberOfNewerIds() {
+        discussionIdIndex.load();
+        discussionIdIndex.add(1, "user1");
+        discussionIdIndex.add(2, "user2");
+        discussionIdIndex.add(3, "user1");
+        Assertions.assertEquals(2, discussionIdIndex.countAfter(1, null).getAsLong());
+        Assertions.assertEquals(1, discussionIdIndex.countAfter(1, "user1").getAsLong());
+        Assertions.assertEquals(0, discussionIdIndex.countAfter(1, "user3").getAsLong());
+    }
+
+    @Test
+    public void countAfter_whenDiscussionRemoved_doesNotCountIt() {
+        discussionIdIndex.load();
+        discussionIdIndex.add(1, "user1");
+        discussionIdIndex.add(2, "user1");
+        discussionIdIndex.remove(2, "user1");
+        Assertions.assertEquals(0, discussionIdIndex.countAfter(1, "user1").getAsLong());
+        Assertions.assertEquals(0, discussionIdIndex.countAfter(1, null).getAsLong());
+    }
+
+    @Test
+    public void countAfter_whenIdIsOlderThanTrackedWindow_returnsEmpty() {
+        discussionIdIndex.load();
+        for (long id = 1; id <= 8; id++) {
+            discussionIdIndex.add(id, "user1");
+        }
+        Assertions.assertFalse(discussionIdIndex.countAfter(2, null).isPresent());
+        Assertions.assertEquals(4, discussionIdIndex.countAfter(4, "user1").getAsLong());
+    }
+
+    @Test
+    public void add_whenUserIdsFallBelowFloor_dropsUser() {
+        discussionIdIndex.load();
+        discussionIdIndex.add(1, "user1");
+        for (long id = 2; id <= 7; id++) {
+            discussionIdIndex.add(id, "user2");
+        }
+        Assertions.assertEquals(1, discussionIdIndex.getTrackedUserCount());
+        Assertions.assertEquals(0, discussionIdIndex.countAfter(3, "user1").getAsLong());
+    }
+
+    @Test
+    public void remove_whenLastIdOfUserRemoved_dropsUser() {
+        discussionIdIndex.load();
+        discussionIdIndex.add(1, "user1");
+        discussionIdIndex.remove(1, "user1");
+        Assertions.assertEquals(0, discussionIdIndex.getTrackedUserCount());
+    }
+}
@@ -0,0 +1,140 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.domain.vm.DiscussionView;
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.DiscussionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public class HotFeedTest {
+
+    DiscussionRepository discussionRepository;
+
+    HotFeed hotFeed;
+
+    @BeforeEach
+    public void init() {
+        AppConfiguration appConfiguration = new AppConfiguration();
+        appConfiguration.setHotFeedSize(5);
+        discussionRepository = Mockito.mock(DiscussionRepository.class);
+        Mockito.when(discussionRepository.findViewById(Mockito.anyLong()))
+                .thenAnswer(invocation -> Optional.of(view(invocation.getArgument(0))));
+        hotFeed = new HotFeed(discussionRepository, appConfiguration, new SimpleMeterRegistry());
+    }
+
+    private DiscussionView view(long id) {
+        return new DiscussionView(id, "content", new Date(), 1, "user1", "display1", null, null, null);
+    }
+
+    private void load(long... ids) {
+        List<DiscussionView> views = new ArrayList<>();
+        for (long id : ids) {
+            views.add(view(id));
+        }
+        Mockito.when(discussionRepository.findViewsNewestFirst(null, 5)).thenReturn(views);
+        Mockito.when(discussionRepository.count()).thenReturn((long) ids.length);
+        hotFeed.reload();
+    }
+
+    private Pageable newestFirst(int page, int size) {
+        return PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @Test
+    public void getPage_beforeLoad_returnsEmpty() {
+        Assertions.assertFalse(hotFeed.getPage(newestFirst(0, 5)).isPresent());
+    }
+
+    @Test
+    public void getPage_whenSortIsNotNewestFirst_returnsEmpty() {
+        load(3, 2, 1);
+        Assertions.assertFalse(hotFeed.getPage(PageRequest.of(0, 5)).isPresent());
+    }
+
+    @Test
+    public void getPage_whenDiscussionAdded_returnsItFirst() {
+        load(3, 2, 1);
+        hotFeed.add(4);
+        Page<DiscussionView> page = hotFeed.getPage(newestFirst(0, 2)).get();
+        Assertions.assertEquals(4, page.getContent().get(0).getId());
+        Assertions.assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    public void getPage_whenPageGoesBeyondWindowOfLargerFeed_returnsEmpty() {
+        load(5, 4, 3, 2, 1);
+        hotFeed.add(6);
+        Assertions.assertTrue(hotFeed.getPage(newestFirst(0, 5)).isPresent());
+        Assertions.assertFalse(hotFeed.getPage(newestFirst(1, 5)).isPresent());
+    }
+
+    @Test
+    public void getPage_whenDiscussionRemoved_doesNotReturnIt() {
+        load(3, 2, 1);
+        hotFeed.remove(2);
+        Page<DiscussionView> page = hotFeed.getPage(newestFirst(0, 5)).get();
+        Assertions.assertEquals(2, page.getContent().size());
+        Assertions.assertEquals(1, page.getContent().get(1).getId());
+        Assertions.assertEquals(2, page.getTotalElements());
+    }
+
+    @Test
+    public void getPage_whenAuthorUpdated_returnsNewDisplayNameAndImage() {
+        load(3, 2, 1);
+        hotFeed.updateAuthor(new UserVM(1, "user1", "new-display", "new-image.png"));
+        Page<DiscussionView> page = hotFeed.getPage(newestFirst(0, 5)).get();
+        for (DiscussionView view : page.getContent()) {
+            Assertions.assertEquals("new-display", view.getUser().getDisplayName());
+            Assertions.assertEquals("new-image.png", view.getUser().getImage());
+        }
+    }
+
+    @Test
+    public void add_whenAuthorUpdatedWhileViewLoads_keepsNewAuthor() {
+        load(3, 2, 1);
+        Mockito.when(discussionRepository.findViewById(4L)).thenAnswer(invocation -> {
+            hotFeed.updateAuthor(new UserVM(1, "user1", "new-display", null));
+            return Optional.of(view(4));
+        }).thenReturn(Optional.of(new DiscussionView(4, "content", new Date(), 1, "user1", "new-display", null, null, null)));
+
+        hotFeed.add(4);
+        Page<DiscussionView> page = hotFeed.getPage(newestFirst(0, 5)).get();
+        Assertions.assertEquals(4, page.getContent().get(0).getId());
+        Assertions.assertEquals("new-display", page.getContent().get(0).getUser().getDisplayName());
+    }
+
+    @Test
+    public void add_whenDiscussionRemovedWhileViewLoads_doesNotAddIt() {
+        load(3, 2, 1);
+        Mockito.when(discussionRepository.findViewById(4L)).thenAnswer(invocation -> {
+            hotFeed.remove(4);
+            return Optional.of(view(4));
+        }).thenReturn(Optional.empty());
+
+        hotFeed.add(4);
+        Page<DiscussionView> page = hotFeed.getPage(newestFirst(0, 5)).get();
+        Assertions.assertEquals(3, page.getContent().get(0).getId());
+        Assertions.assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    public void getHitRatio_afterHitAndMiss_returnsHalf() {
+        load(1);
+        hotFeed.getPage(newestFirst(0, 5));
+        hotFeed.getPage(PageRequest.of(0, 5));
+        Assertions.assertEquals(0.5, hotFeed.getHitRatio());
+    }
+}
@@ -0,0 +1,106 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.utils.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class UserProfileCacheTest {
+
+    UserRepository userRepository;
+
+    UserProfileCache userProfileCache;
+
+    private static User user(long id, String username) {
+        User user = TestUtil.createValidUser(username);
+        user.setId(id);
+        return user;
+    }
+
+    @BeforeEach
+    public void init() {
+        userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername("user1")).thenReturn(Optional.of(user(5, "user1")));
+        Mockito.when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+        userProfileCache = new UserProfileCache(userRepository, new AppConfiguration(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void getByUsername_whenUserExists_queriesRepositoryOnce() {
+        Assertions.assertEquals(5, userProfileCache.getByUsername("user1").get().getId());
+        Assertions.assertEquals(5, userProfileCache.getByUsername("user1").get().getId());
+        Mockito.verify(userRepository, Mockito.times(1)).findByUsername("user1");
+    }
+
+    @Test
+    public void getByUsername_whenUserDoesNotExist_doesNotCacheMiss() {
+        Assertions.assertFalse(userProfileCache.getByUsername("unknown").isPresent());
+        Mockito.when(userRepository.findByUsername("unknown")).thenReturn(Optional.of(user(6, "unknown")));
+        Assertions.assertTrue(userProfileCache.getByUsername("unknown").isPresent());
+    }
+
+    @Test
+    public void getByUsername_afterEvict_returnsUpdatedProfile() {
+        userProfileCache.getByUsername("user1");
+        User updated = user(5, "user1");
+        updated.setDisplayName("updated");
+        Mockito.when(userRepository.findByUsername("user1")).thenReturn(Optional.of(updated));
+        userProfileCache.evict("user1", 5);
+        Assertions.assertEquals("updated", userProfileCache.getByUsername("user1").get().getDisplayName());
+    }
+
+    @Test
+    public void getByUsername_whenManyThreadsMissAtOnce_queriesRepositoryOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(userRepository.findByUsername("user1")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user(5, "user1"));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<UserVM>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> userProfileCache.getByUsername("user1")));
+            }
+            Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Optional<UserVM>> result : results) {
+                Assertions.assertEquals(5, result.get(5, TimeUnit.SECONDS).get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(userRepository, Mockito.times(1)).findByUsername("user1");
+    }
+
+    @Test
+    public void getAllById_whenSomeIdsAreCached_loadsOnlyMissesInOneQuery() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user(1, "user1")));
+        Mockito.when(userRepository.findAllById(Mockito.anyIterable())).thenReturn(List.of(user(3, "user3"), user(2, "user2")));
+        userProfileCache.getById(1);
+
+        List<UserVM> profiles = userProfileCache.getAllById(List.of(1L, 2L, 3L, 4L));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), profiles.stream().map(UserVM::getId).collect(Collectors.toList()));
+        Mockito.verify(userRepository, Mockito.times(1)).findAllById(Mockito.anyIterable());
+    }
+}
@@ -0,0 +1,81 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.domain.vm.UserVM;
+import com.discussion.forum.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class UserSuggestionIndexTest {
+
+    UserSuggestionIndex userSuggestionIndex;
+
+    private static List<String> usernames(List<UserVM> users) {
+        return users.stream().map(UserVM::getUsername).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    public void init() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.streamProfilesOrderById()).thenAnswer(invocation -> Stream.of(
+                new UserVM(1, "alice", "Alice Martin", null),
+                new UserVM(2, "albert", "Albert Dupont", null),
+                new UserVM(3, "bob", "Élise Alain", null),
+                new UserVM(4, "al", "Bob Bobby", null)));
+        userSuggestionIndex = new UserSuggestionIndex(userRepository, Mockito.mock(PlatformTransactionManager.class));
+        userSuggestionIndex.reload();
+    }
+
+    @Test
+    public void suggest_withPrefix_returnsUsernameMatchesBeforeDisplayNameMatches() {
+        Assertions.assertEquals(List.of("al", "alice", "albert", "bob"), usernames(userSuggestionIndex.suggest("Al", 10)));
+    }
+
+    @Test
+    public void suggest_withSize_returnsAtMostSizeUsers() {
+        Assertions.assertEquals(List.of("al", "alice"), usernames(userSuggestionIndex.suggest("al", 2)));
+    }
+
+    @Test
+    public void suggest_withUserMatchingSeveralKeys_returnsUserOnce() {
+        Assertions.assertEquals(List.of("bob", "al"), usernames(userSuggestionIndex.suggest("bob", 10)));
+    }
+
+    @Test
+    public void suggest_withAccentlessQuery_matchesAccentedDisplayName() {
+        Assertions.assertEquals(List.of("bob"), usernames(userSuggestionIndex.suggest("elis", 10)));
+    }
+
+    @Test
+    public void suggest_withBlankQuery_returnsEmptyList() {
+        Assertions.assertTrue(userSuggestionIndex.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void suggest_afterPut_reflectsNewDisplayName() {
+        userSuggestionIndex.put(new UserVM(2, "albert", "Zoé Renard", null));
+        Assertions.assertEquals(List.of("albert"), usernames(userSuggestionIndex.suggest("zoe", 10)));
+        Assertions.assertTrue(userSuggestionIndex.suggest("dupont", 10).isEmpty());
+    }
+
+    @Test
+    public void suggest_withManyDisplayNameMatchesSortingFirst_stillReturnsUsernameMatch() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.streamProfilesOrderById()).thenAnswer(invocation -> Stream.concat(
+                IntStream.range(0, 300).mapToObj(i -> new UserVM(i + 1, "user" + i, "Alan" + i, null)),
+                Stream.of(new UserVM(1000, "alzira", "Zira", null))));
+        UserSuggestionIndex index = new UserSuggestionIndex(userRepository, Mockito.mock(PlatformTransactionManager.class));
+        index.reload();
+
+        List<UserVM> suggestions = index.suggest("al", 5);
+        Assertions.assertEquals(5, suggestions.size());
+        Assertions.assertEquals("alzira", suggestions.get(0).getUsername());
+    }
+}
@@ -0,0 +1,68 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class UsernameFilterTest {
+
+    private static final int USERS = 10_000;
+
+    UserRepository userRepository;
+
+    UsernameFilter usernameFilter;
+
+    @BeforeEach
+    public void init() {
+        userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.streamAllUsernames())
+                .thenAnswer(invocation -> IntStream.range(0, USERS).mapToObj(i -> "user" + i));
+        AppConfiguration appConfiguration = new AppConfiguration();
+        appConfiguration.setUsernameFilterExpectedUsers(USERS);
+        appConfiguration.setUsernameFilterFalsePositiveRate(0.01);
+        usernameFilter = new UsernameFilter(userRepository, Mockito.mock(PlatformTransactionManager.class),
+                appConfiguration, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void mightContain_beforeLoad_returnsTrue() {
+        Assertions.assertTrue(usernameFilter.mightContain("unknown"));
+    }
+
+    @Test
+    public void mightContain_afterLoad_returnsTrueForEveryStoredName() {
+        usernameFilter.load();
+        Assertions.assertTrue(IntStream.range(0, USERS).allMatch(i -> usernameFilter.mightContain("user" + i)));
+    }
+
+    @Test
+    public void mightContain_afterAdd_returnsTrue() {
+        Mockito.when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+        usernameFilter.load();
+        Assertions.assertFalse(usernameFilter.mightContain("new-user"));
+        usernameFilter.add("new-user");
+        Assertions.assertTrue(usernameFilter.mightContain("new-user"));
+    }
+
+    @Test
+    public void mightContain_forUnknownNames_staysCloseToConfiguredFalsePositiveRate() {
+        usernameFilter.load();
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (usernameFilter.mightContain("someone-else" + i)) {
+                usernameFilter.recordFalsePositive();
+            }
+        }
+        double measured = usernameFilter.getFalsePositiveRate();
+        Assertions.assertTrue(measured < 0.015, "measured false positive rate " + measured);
+        Assertions.assertEquals(usernameFilter.getExpectedFalsePositiveRate(), measured, 0.005);
+    }
+}
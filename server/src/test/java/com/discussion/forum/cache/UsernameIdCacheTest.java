@@ -0,0 +1,48 @@
+package com.discussion.forum.cache;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+
+public class UsernameIdCacheTest {
+
+    UserRepository userRepository;
+
+    UsernameIdCache usernameIdCache;
+
+    @BeforeEach
+    public void init() {
+        userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findIdByUsername("user1")).thenReturn(Optional.of(5L));
+        Mockito.when(userRepository.findIdByUsername("unknown")).thenReturn(Optional.empty());
+        usernameIdCache = new UsernameIdCache(userRepository, new AppConfiguration(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void getId_whenUserExists_queriesRepositoryOnce() {
+        Assertions.assertEquals(5, usernameIdCache.getId("user1").getAsLong());
+        Assertions.assertEquals(5, usernameIdCache.getId("user1").getAsLong());
+        Mockito.verify(userRepository, Mockito.times(1)).findIdByUsername("user1");
+    }
+
+    @Test
+    public void getId_whenUserDoesNotExist_cachesMiss() {
+        Assertions.assertFalse(usernameIdCache.getId("unknown").isPresent());
+        Assertions.assertFalse(usernameIdCache.getId("unknown").isPresent());
+        Mockito.verify(userRepository, Mockito.times(1)).findIdByUsername("unknown");
+    }
+
+    @Test
+    public void getId_afterEvict_queriesRepositoryAgain() {
+        usernameIdCache.getId("unknown");
+        Mockito.when(userRepository.findIdByUsername("unknown")).thenReturn(Optional.of(7L));
+        usernameIdCache.evict("unknown");
+        Assertions.assertEquals(7, usernameIdCache.getId("unknown").getAsLong());
+    }
+}
@@ -0,0 +1,53 @@
+package com.discussion.forum.configuration;
+
+import com.discussion.forum.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({QueryPlanVerifier.class, StatementCapture.class})
+public class QueryPlanVerifierTest {
+
+    @Autowired
+    QueryPlanVerifier queryPlanVerifier;
+
+    @Autowired
+    StatementCapture statementCapture;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void verify_whenMigrationsApplied_findsNoTableScan() {
+        Assertions.assertDoesNotThrow(queryPlanVerifier::verify);
+    }
+
+    @Test
+    public void capture_whenRepositoryQueryRuns_returnsGeneratedSql() {
+        List<String> statements = statementCapture.capture(() -> userRepository.findByUsername("probe"));
+        Assertions.assertEquals(1, statements.size());
+        Assertions.assertTrue(statements.get(0).contains("where user0_.username=?"), statements.get(0));
+    }
+
+    @Test
+    public void verify_whenUsernameIndexIsMissing_throwsException() {
+        jdbcTemplate.execute("drop index idx_user_username");
+        try {
+            IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, queryPlanVerifier::verify);
+            Assertions.assertTrue(exception.getMessage().contains("UserRepository.findByUsername"));
+        } finally {
+            jdbcTemplate.execute("create unique index idx_user_username on user (username)");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.discussion.forum.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class StorageLayoutMigrationTest {
+
+    AppConfiguration appConfiguration;
+
+    StorageLayout storageLayout;
+
+    StorageLayoutMigration storageLayoutMigration;
+
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        appConfiguration = new AppConfiguration();
+        appConfiguration.setUploadPath("uploads-test");
+        new File(appConfiguration.getFullProfileImagesPath()).mkdirs();
+        new File(appConfiguration.getFullAttachmentsPath()).mkdirs();
+        storageLayout = new StorageLayout(appConfiguration);
+        meterRegistry = new SimpleMeterRegistry();
+        storageLayoutMigration = new StorageLayoutMigration(appConfiguration, storageLayout, meterRegistry);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        FileUtils.cleanDirectory(new File(appConfiguration.getFullProfileImagesPath()));
+        FileUtils.cleanDirectory(new File(appConfiguration.getFullAttachmentsPath()));
+    }
+
+    private File writeFlat(String folder, String name) throws IOException {
+        File file = storageLayout.legacyPath(folder, name).toFile();
+        FileUtils.writeStringToFile(file, name, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void shardOf_whenNameStartsWithHex_usesLeadingCharacters() {
+        Assertions.assertEquals("ab/cd", StorageLayout.shardOf("abcdef0123"));
+    }
+
+    @Test
+    public void shardOf_whenNameIsNotHex_usesStableShard() {
+        Assertions.assertEquals(StorageLayout.shardOf("profile.png"), StorageLayout.shardOf("profile.png"));
+        Assertions.assertTrue(StorageLayout.shardOf("profile.png").matches("[0-9a-f]{2}/[0-9a-f]{2}"));
+    }
+
+    @Test
+    public void migrate_whenFilesAreInFlatFolders_movesThemToShardedFolders() throws Exception {
+        File profile = writeFlat(appConfiguration.getProfileImagesFolder(), "0a1b2c3d");
+        File attachment = writeFlat(appConfiguration.getAttachmentsFolder(), "ffee0011");
+        Assertions.assertEquals(2, storageLayoutMigration.migrate());
+        Assertions.assertFalse(profile.exists());
+        Assertions.assertFalse(attachment.exists());
+        Assertions.assertEquals("0a1b2c3d", FileUtils.readFileToString(
+                storageLayout.path(appConfiguration.getProfileImagesFolder(), "0a1b2c3d").toFile(), StandardCharsets.UTF_8));
+        Assertions.assertTrue(storageLayout.path(appConfiguration.getAttachmentsFolder(), "ffee0011").toFile().exists());
+    }
+
+    @Test
+    public void migrate_whenVariantsAreInFlatFolders_movesThemToShardedFolders() throws Exception {
+        String variantFolder = appConfiguration.getProfileImagesFolder() + "/variants/32";
+        File variant = writeFlat(variantFolder, "0a1b2c3d");
+        storageLayoutMigration.migrate();
+        Assertions.assertFalse(variant.exists());
+        Assertions.assertTrue(storageLayout.path(variantFolder, "0a1b2c3d").toFile().exists());
+    }
+
+    @Test
+    public void migrate_whenManyFiles_movesAllOfThem() throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            writeFlat(appConfiguration.getAttachmentsFolder(), String.format("%08x", i));
+        }
+        Assertions.assertEquals(2000, storageLayoutMigration.migrate());
+        Assertions.assertEquals(1, new File(appConfiguration.getFullAttachmentsPath()).list().length);
+    }
+
+    @Test
+    public void migrate_whenUploadIsInProgress_leavesTemporaryFile() throws Exception {
+        File temp = writeFlat(appConfiguration.getAttachmentsFolder(), ".upload-1234");
+        Assertions.assertEquals(0, storageLayoutMigration.migrate());
+        Assertions.assertTrue(temp.exists());
+    }
+
+    @Test
+    public void migrate_whenFileCannotBeMoved_countsFailureAndKeepsFile() throws Exception {
+        File file = writeFlat(appConfiguration.getAttachmentsFolder(), "0a1b2c3d");
+        File shard = storageLayout.path(appConfiguration.getAttachmentsFolder(), "0a1b2c3d").getParent().toFile();
+        FileUtils.writeStringToFile(shard, "not a directory", StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(0, storageLayoutMigration.migrate());
+        Assertions.assertTrue(file.exists());
+        Assertions.assertEquals(1, meterRegistry.counter("storage.migration.failed").count());
+        Assertions.assertEquals(0, meterRegistry.counter("storage.migration.moved").count());
+    }
+
+    @Test
+    public void locate_whenFileIsOnlyInFlatFolder_returnsFlatPath() throws Exception {
+        File file = writeFlat(appConfiguration.getAttachmentsFolder(), "0a1b2c3d");
+        Assertions.assertEquals(file.toPath(), storageLayout.locate(appConfiguration.getAttachmentsFolder(), "0a1b2c3d").get());
+    }
+}
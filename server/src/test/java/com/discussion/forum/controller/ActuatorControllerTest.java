@@ -0,0 +1,68 @@
+package com.discussion.forum.controller;
+
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.service.UserService;
+import com.discussion.forum.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ActuatorControllerTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    public void cleanup() {
+        userRepository.deleteAll();
+        testRestTemplate.getRestTemplate().getInterceptors().clear();
+    }
+
+    private void authenticate() {
+        testRestTemplate
+                .getRestTemplate()
+                .getInterceptors()
+                .add(new BasicAuthenticationInterceptor(TestUtil.USERNAME, TestUtil.PASSWORD));
+    }
+
+    @Test
+    public void getHealth_withoutUserCredentials_receiveOk() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/health", String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void getMetrics_withoutUserCredentials_receiveUnauthorized() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/metrics", String.class);
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void getMetric_withoutUserCredentials_receiveUnauthorized() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/metrics/cache.gets", String.class);
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void getMetrics_withValidCredentials_receiveOk() {
+        userService.save(TestUtil.createValidUser());
+        authenticate();
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/metrics", String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+}
@@ -1,6 +1,10 @@
 package com.discussion.forum.controller;
 
+import com.discussion.forum.cache.HotFeed;
+import com.discussion.forum.configuration.AccessTokenService;
 import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
+import com.discussion.forum.domain.AuthenticatedUser;
 import com.discussion.forum.domain.Discussion;
 import com.discussion.forum.domain.FileAttachment;
 import com.discussion.forum.domain.User;
@@ -8,8 +12,10 @@ import com.discussion.forum.domain.vm.DiscussionVM;
 import com.discussion.forum.exception.ApiErrorException;
 import com.discussion.forum.repository.DiscussionRepository;
 import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.repository.StoredBlobRepository;
 import com.discussion.forum.repository.UserRepository;
 import com.discussion.forum.service.DiscussionService;
+import com.discussion.forum.service.FileDeletionQueue;
 import com.discussion.forum.service.FileService;
 import com.discussion.forum.service.UserService;
 import com.discussion.forum.utils.TestPage;
@@ -53,6 +59,9 @@ public class DiscussionControllerTest {
     @Autowired
     TestRestTemplate testRestTemplate;
 
+    @Autowired
+    StoredBlobRepository storedBlobRepository;
+
     @Autowired
     UserService userService;
 
@@ -74,15 +83,29 @@ public class DiscussionControllerTest {
     @Autowired
     AppConfiguration appConfiguration;
 
+    @Autowired
+    StorageLayout storageLayout;
+
+    @Autowired
+    FileDeletionQueue fileDeletionQueue;
+
+    @Autowired
+    HotFeed hotFeed;
+
+    @Autowired
+    AccessTokenService accessTokenService;
+
 
     @PersistenceUnit
     private EntityManagerFactory entityManagerFactory;
 
     @BeforeEach
     public void cleanup() throws IOException {
+        storedBlobRepository.deleteAll();
         fileAttachmentRepository.deleteAll();
         discussionRepository.deleteAll();
         userRepository.deleteAll();
+        hotFeed.reload();
         testRestTemplate.getRestTemplate().getInterceptors().clear();
         FileUtils.cleanDirectory(new File(appConfiguration.getFullAttachmentsPath()));
     }
@@ -103,6 +126,14 @@ public class DiscussionControllerTest {
                 .getInterceptors().add(new BasicAuthenticationInterceptor(username, TestUtil.PASSWORD));
     }
 
+    private void authenticateWithToken(User user) {
+        String token = accessTokenService.createToken(AuthenticatedUser.of(user));
+        testRestTemplate.getRestTemplate().getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().setBearerAuth(token);
+            return execution.execute(request, body);
+        });
+    }
+
     private MultipartFile createFile() throws IOException {
         ClassPathResource imageResource = new ClassPathResource("profile.png");
         byte[] fileAsByte = FileUtils.readFileToByteArray(imageResource.getFile());
@@ -149,6 +180,16 @@ public class DiscussionControllerTest {
         return testRestTemplate.exchange(path, HttpMethod.GET, null, responseType);
     }
 
+    public <T> ResponseEntity<T> getDiscussionFeed(String cursor, ParameterizedTypeReference<T> responseType) {
+        String path = API_1_0_DISCUSSION + "?size=3&cursor=" + cursor;
+        return testRestTemplate.exchange(path, HttpMethod.GET, null, responseType);
+    }
+
+    public <T> ResponseEntity<T> getDiscussionFeedOfUser(String username, String cursor, ParameterizedTypeReference<T> responseType) {
+        String path = API_1_0_USERS + "/" + username + "/discussions?size=3&cursor=" + cursor;
+        return testRestTemplate.exchange(path, HttpMethod.GET, null, responseType);
+    }
+
     public <T> ResponseEntity<T> deleteDiscussion(long discussionId, Class<T> responseType) {
         return testRestTemplate.exchange(API_1_0_DISCUSSION + "/" + discussionId, HttpMethod.DELETE, null, responseType);
     }
@@ -260,6 +301,15 @@ public class DiscussionControllerTest {
         Assertions.assertNotNull(validationErrors.get("content"));
     }
 
+    @Test
+    public void postDiscussion_whenUserIsAuthorizedWithAccessToken_receiveDiscussionVMWithUserProfile() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        authenticateWithToken(user);
+        ResponseEntity<DiscussionVM> response = postDiscussion(TestUtil.createValidDiscussion(), DiscussionVM.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(user.getDisplayName(), response.getBody().getUser().getDisplayName());
+    }
+
     @Test
     public void postDiscussion_whenDiscussionIsValidAndUserIsAuthorized_discussionSavedWithAuthenticatedUserInfo() {
         userService.save(TestUtil.createValidUser("user1"));
@@ -322,6 +372,20 @@ public class DiscussionControllerTest {
         Assertions.assertEquals("user1", storedDiscussion.getUser().getUsername());
     }
 
+    @Test
+    public void getDiscussions_whenUserPostedDiscussion_receiveItFirstOnNewestPage() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        Discussion discussion = TestUtil.createValidDiscussion();
+        discussion.setContent("my latest discussion");
+        postDiscussion(discussion, Object.class);
+
+        ResponseEntity<TestPage<DiscussionVM>> response = testRestTemplate.exchange(API_1_0_DISCUSSION + "?page=0&size=5&sort=id,desc",
+                HttpMethod.GET, null, new ParameterizedTypeReference<TestPage<DiscussionVM>>() {
+                });
+        Assertions.assertEquals("my latest discussion", response.getBody().getContent().get(0).getContent());
+    }
+
     @Test
     public void getDiscussionsOfUser_whenUserExists_receiveOk() {
         userService.save(TestUtil.createValidUser("user1"));
@@ -687,6 +751,17 @@ public class DiscussionControllerTest {
         Assertions.assertFalse(inDB.isPresent());
     }
 
+    @Test
+    public void deleteDiscussion_whenUserIsAuthorizedWithAccessToken_discussionRemovedFromDatabase() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        authenticateWithToken(user);
+        Discussion discussion = discussionService.save(user, TestUtil.createValidDiscussion());
+
+        ResponseEntity<String> response = deleteDiscussion(discussion.getId(), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertFalse(discussionRepository.existsById(discussion.getId()));
+    }
+
     @Test
     public void deleteDiscussion_whenDiscussionIsOwnedByAnotherUser_receiveForbidden() {
         userService.save(TestUtil.createValidUser("user1"));
@@ -745,8 +820,56 @@ public class DiscussionControllerTest {
         long discussionId = response.getBody().getId();
 
         deleteDiscussion(discussionId, String.class);
-        String attachmentFolderPath = appConfiguration.getFullAttachmentsPath() + "/" + savedFile.getName();
-        File storedImage = new File(attachmentFolderPath);
+        fileDeletionQueue.drain();
+        File storedImage = storageLayout.path(appConfiguration.getAttachmentsFolder(), savedFile.getName()).toFile();
         Assertions.assertFalse(storedImage.exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getDiscussionFeed_whenFirstPageRequested_receiveNewestDiscussionsWithNextCursor() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        IntStream.range(0, 5).forEach(i -> discussionService.save(user, TestUtil.createValidDiscussion()));
+
+        ResponseEntity<Map<String, Object>> response = getDiscussionFeed("", new ParameterizedTypeReference<>() {
+        });
+        Map<String, Object> body = Objects.requireNonNull(response.getBody());
+        Assertions.assertEquals(3, ((List<?>) body.get("content")).size());
+        Assertions.assertNotNull(body.get("nextCursor"));
+        Assertions.assertFalse(body.containsKey("totalElements"));
+    }
+
+    @Test
+    public void getDiscussionFeed_whenNextCursorFollowed_receiveRemainingDiscussionsWithoutNextCursor() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        IntStream.range(0, 5).forEach(i -> discussionService.save(user, TestUtil.createValidDiscussion()));
+
+        String cursor = (String) Objects.requireNonNull(getDiscussionFeed("", new ParameterizedTypeReference<Map<String, Object>>() {
+        }).getBody()).get("nextCursor");
+        ResponseEntity<Map<String, Object>> response = getDiscussionFeed(cursor, new ParameterizedTypeReference<>() {
+        });
+        Map<String, Object> body = Objects.requireNonNull(response.getBody());
+        Assertions.assertEquals(2, ((List<?>) body.get("content")).size());
+        Assertions.assertNull(body.get("nextCursor"));
+    }
+
+    @Test
+    public void getDiscussionFeed_whenCursorIsInvalid_receiveBadRequest() {
+        ResponseEntity<Object> response = getDiscussionFeed("not-a-cursor", new ParameterizedTypeReference<>() {
+        });
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void getDiscussionFeedOfUser_whenMultipleUsersHaveDiscussions_receiveOnlyUsersDiscussions() {
+        User user1 = userService.save(TestUtil.createValidUser("user1"));
+        User user2 = userService.save(TestUtil.createValidUser("user2"));
+        IntStream.range(0, 2).forEach(i -> discussionService.save(user1, TestUtil.createValidDiscussion()));
+        IntStream.range(0, 4).forEach(i -> discussionService.save(user2, TestUtil.createValidDiscussion()));
+
+        ResponseEntity<Map<String, Object>> response = getDiscussionFeedOfUser("user1", "", new ParameterizedTypeReference<>() {
+        });
+        Map<String, Object> body = Objects.requireNonNull(response.getBody());
+        Assertions.assertEquals(2, ((List<?>) body.get("content")).size());
+        Assertions.assertNull(body.get("nextCursor"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.discussion.forum.controller;
+
+import com.discussion.forum.cache.HotFeed;
+import com.discussion.forum.domain.Discussion;
+import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.repository.DiscussionRepository;
+import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.service.DiscussionService;
+import com.discussion.forum.service.UserService;
+import com.discussion.forum.utils.SqlStatementInspector;
+import com.discussion.forum.utils.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.discussion.forum.utils.Constant.API_1_0_DISCUSSION;
+import static com.discussion.forum.utils.Constant.API_1_0_USERS;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.discussion.forum.utils.SqlStatementInspector")
+@ActiveProfiles("test")
+public class DiscussionFeedQueryCountTest {
+
+    @Autowired
+    TestRestTemplate testRestTemplate;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DiscussionRepository discussionRepository;
+
+    @Autowired
+    DiscussionService discussionService;
+
+    @Autowired
+    FileAttachmentRepository fileAttachmentRepository;
+
+    @Autowired
+    HotFeed hotFeed;
+
+    long firstId;
+
+    @BeforeEach
+    public void setup() {
+        fileAttachmentRepository.deleteAll();
+        discussionRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user1 = userService.save(TestUtil.createValidUser("user1"));
+        User user2 = userService.save(TestUtil.createValidUser("user2"));
+        for (int i = 0; i < 10; i++) {
+            Discussion discussion = TestUtil.createValidDiscussion();
+            FileAttachment attachment = new FileAttachment();
+            attachment.setDate(new Date());
+            attachment.setName("attachment-" + i);
+            discussion.setAttachment(fileAttachmentRepository.save(attachment));
+            Discussion saved = discussionService.save(i % 2 == 0 ? user1 : user2, discussion);
+            if (i == 0) {
+                firstId = saved.getId();
+            }
+        }
+        SqlStatementInspector.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        fileAttachmentRepository.deleteAll();
+        discussionRepository.deleteAll();
+    }
+
+    private List<String> statementsFor(String path) {
+        SqlStatementInspector.clear();
+        ResponseEntity<String> response = testRestTemplate.getForEntity(path, String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        return SqlStatementInspector.getStatements();
+    }
+
+    @Test
+    public void getDiscussions_whenPageHasDiscussionsWithAttachments_runsSelectAndCountOnly() {
+        List<String> statements = statementsFor(API_1_0_DISCUSSION + "?page=0&size=10&sort=id,asc");
+        Assertions.assertEquals(2, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    public void getDiscussions_whenFirstPageIsInHotFeed_runsNoStatement() {
+        hotFeed.reload();
+        List<String> statements = statementsFor(API_1_0_DISCUSSION + "?page=0&size=5&sort=id,desc");
+        Assertions.assertEquals(0, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    public void getDiscussionsOfUser_whenPageHasDiscussionsWithAttachments_runsUserLookupSelectAndCountOnly() {
+        List<String> statements = statementsFor(API_1_0_USERS + "/user1/discussions?page=0&size=3&sort=id,desc");
+        Assertions.assertEquals(3, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    public void getOldDiscussions_whenPageHasDiscussionsWithAttachments_runsSelectAndCountOnly() {
+        List<String> statements = statementsFor(API_1_0_DISCUSSION + "/" + (firstId + 100) + "?direction=before&page=0&size=10&sort=id,desc");
+        Assertions.assertEquals(2, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    public void getOldDiscussionsOfUser_whenUserIdIsCached_runsNoUserLookup() {
+        String path = API_1_0_USERS + "/user1/discussions/" + (firstId + 100) + "?direction=before&page=0&size=3&sort=id,desc";
+        statementsFor(path);
+        List<String> statements = statementsFor(path);
+        Assertions.assertEquals(2, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    public void getNewDiscussions_whenDiscussionsHaveAttachments_runsSingleSelect() {
+        List<String> statements = statementsFor(API_1_0_DISCUSSION + "/" + (firstId - 1) + "?direction=after&sort=id,desc");
+        Assertions.assertEquals(1, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    public void getDiscussionFeed_whenDiscussionsHaveAttachments_runsSingleSelect() {
+        List<String> statements = statementsFor(API_1_0_DISCUSSION + "?cursor=&size=10");
+        Assertions.assertEquals(1, statements.size(), String.join("\n", statements));
+    }
+}
@@ -0,0 +1,97 @@
+package com.discussion.forum.controller;
+
+import com.discussion.forum.domain.Discussion;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.repository.DiscussionRepository;
+import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.service.DiscussionService;
+import com.discussion.forum.service.UserService;
+import com.discussion.forum.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.discussion.forum.utils.Constant.API_1_0_DISCUSSION;
+import static com.discussion.forum.utils.Constant.API_1_0_USERS;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class DiscussionStreamControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DiscussionRepository discussionRepository;
+
+    @Autowired
+    DiscussionService discussionService;
+
+    @BeforeEach
+    public void cleanup() {
+        discussionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    public void streamDiscussions_whenDiscussionIsSaved_receiveDiscussionEvent() throws Exception {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        MvcResult result = mockMvc.perform(get(API_1_0_DISCUSSION + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        discussionService.save(user, TestUtil.createValidDiscussion());
+
+        String content = awaitContent(result, "event:discussion");
+        Assertions.assertTrue(content.contains("event:discussion"));
+        Assertions.assertTrue(content.contains("\"username\":\"user1\""));
+    }
+
+    @Test
+    public void streamDiscussionsOfUser_whenAnotherUserSavesDiscussion_receiveNothing() throws Exception {
+        User user1 = userService.save(TestUtil.createValidUser("user1"));
+        User user2 = userService.save(TestUtil.createValidUser("user2"));
+        MvcResult result = mockMvc.perform(get(API_1_0_USERS + "/user1/discussions/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Discussion other = discussionService.save(user2, TestUtil.createValidDiscussion());
+        Discussion own = discussionService.save(user1, TestUtil.createValidDiscussion());
+
+        String content = awaitContent(result, "id:" + own.getId() + "\n");
+        Assertions.assertTrue(content.contains("id:" + own.getId() + "\n"));
+        Assertions.assertFalse(content.contains("id:" + other.getId() + "\n"));
+    }
+
+    @Test
+    public void streamDiscussionsOfUser_whenUserDoesNotExist_receiveNotFound() throws Exception {
+        mockMvc.perform(get(API_1_0_USERS + "/unknown-user/discussions/stream"))
+                .andExpect(status().isNotFound());
+    }
+}
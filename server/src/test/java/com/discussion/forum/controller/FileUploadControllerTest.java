@@ -1,9 +1,13 @@
 package com.discussion.forum.controller;
 
 import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
 import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.vm.UploadSessionVM;
 import com.discussion.forum.repository.FileAttachmentRepository;
+import com.discussion.forum.repository.StoredBlobRepository;
 import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.service.ChunkedUploadService;
 import com.discussion.forum.service.UserService;
 import com.discussion.forum.utils.TestUtil;
 import org.apache.commons.io.FileUtils;
@@ -19,9 +23,12 @@ import org.springframework.http.client.support.BasicAuthenticationInterceptor;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Objects;
 
 import static com.discussion.forum.utils.Constant.API_1_0_DISCUSSION;
@@ -32,6 +39,9 @@ public class FileUploadControllerTest {
     @Autowired
     TestRestTemplate testRestTemplate;
 
+    @Autowired
+    StoredBlobRepository storedBlobRepository;
+
     @Autowired
     UserRepository userRepository;
 
@@ -41,14 +51,38 @@ public class FileUploadControllerTest {
     @Autowired
     AppConfiguration appConfiguration;
 
+    @Autowired
+    StorageLayout storageLayout;
+
     @Autowired
     FileAttachmentRepository fileAttachmentRepository;
 
+    @Autowired
+    ChunkedUploadService chunkedUploadService;
 
     public <T> ResponseEntity<T> uploadFile(HttpEntity<?> requestEntity, Class<T> responseType) {
         return testRestTemplate.exchange(API_1_0_DISCUSSION + "/upload", HttpMethod.POST, requestEntity, responseType);
     }
 
+    private ResponseEntity<UploadSessionVM> startUpload(long size) {
+        return testRestTemplate.postForEntity(API_1_0_DISCUSSION + "/upload/sessions?size=" + size, null, UploadSessionVM.class);
+    }
+
+    private <T> ResponseEntity<T> uploadChunk(String id, long offset, byte[] chunk, Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        return testRestTemplate.exchange(API_1_0_DISCUSSION + "/upload/sessions/" + id + "?offset=" + offset,
+                HttpMethod.PUT, new HttpEntity<>(chunk, headers), responseType);
+    }
+
+    private <T> ResponseEntity<T> completeUpload(String id, Class<T> responseType) {
+        return testRestTemplate.postForEntity(API_1_0_DISCUSSION + "/upload/sessions/" + id + "/complete", null, responseType);
+    }
+
+    private byte[] readImage() throws IOException {
+        return FileUtils.readFileToByteArray(new ClassPathResource("profile.png").getFile());
+    }
+
     private HttpEntity<MultiValueMap<String, Object>> getRequestEntity() {
         ClassPathResource imageResource = new ClassPathResource("profile.png");
         MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
@@ -67,10 +101,12 @@ public class FileUploadControllerTest {
 
     @BeforeEach
     public void cleanup() throws IOException {
+        storedBlobRepository.deleteAll();
         userRepository.deleteAll();
         fileAttachmentRepository.deleteAll();
         testRestTemplate.getRestTemplate().getInterceptors().clear();
         FileUtils.cleanDirectory(new File(appConfiguration.getFullAttachmentsPath()));
+        FileUtils.deleteDirectory(new File(appConfiguration.getChunkedUploadPath()));
     }
 
     @Test
@@ -110,8 +146,7 @@ public class FileUploadControllerTest {
         userService.save(TestUtil.createValidUser("user1"));
         authenticate("user1");
         ResponseEntity<FileAttachment> response = uploadFile(getRequestEntity(), FileAttachment.class);
-        String imagePath = appConfiguration.getFullAttachmentsPath() + "/" + Objects.requireNonNull(response.getBody()).getName();
-        File storedImage = new File(imagePath);
+        File storedImage = storageLayout.path(appConfiguration.getAttachmentsFolder(), Objects.requireNonNull(response.getBody()).getName()).toFile();
         Assertions.assertTrue(storedImage.exists());
     }
 
@@ -133,4 +168,152 @@ public class FileUploadControllerTest {
         Assertions.assertEquals("image/png", storedFile.getFileType());
 
     }
+
+    @Test
+    public void uploadFile_withImageFromAuthorizedUser_storedFileMatchesUpload() throws IOException {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        ResponseEntity<FileAttachment> response = uploadFile(getRequestEntity(), FileAttachment.class);
+        File storedImage = storageLayout.path(appConfiguration.getAttachmentsFolder(), Objects.requireNonNull(response.getBody()).getName()).toFile();
+        byte[] original = FileUtils.readFileToByteArray(new ClassPathResource("profile.png").getFile());
+        Assertions.assertArrayEquals(original, FileUtils.readFileToByteArray(storedImage));
+    }
+
+    @Test
+    public void uploadFile_whenFileExceedsMaxAttachmentSize_receivePayloadTooLarge() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        DataSize maxAttachmentSize = appConfiguration.getMaxAttachmentSize();
+        appConfiguration.setMaxAttachmentSize(DataSize.ofBytes(100));
+        try {
+            ResponseEntity<Object> response = uploadFile(getRequestEntity(), Object.class);
+            Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        } finally {
+            appConfiguration.setMaxAttachmentSize(maxAttachmentSize);
+        }
+    }
+
+    @Test
+    public void uploadFile_whenFileExceedsMaxAttachmentSize_partialFileIsRemoved() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        DataSize maxAttachmentSize = appConfiguration.getMaxAttachmentSize();
+        appConfiguration.setMaxAttachmentSize(DataSize.ofBytes(100));
+        try {
+            uploadFile(getRequestEntity(), Object.class);
+            Assertions.assertEquals(0, Objects.requireNonNull(new File(appConfiguration.getFullAttachmentsPath()).list()).length);
+            Assertions.assertEquals(0, fileAttachmentRepository.count());
+        } finally {
+            appConfiguration.setMaxAttachmentSize(maxAttachmentSize);
+        }
+    }
+
+    @Test
+    public void startUpload_fromUnauthorizedUser_receiveUnauthorized() {
+        ResponseEntity<UploadSessionVM> response = startUpload(100);
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void startUpload_fromAuthorizedUser_preallocatesFileOfDeclaredSize() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        UploadSessionVM session = startUpload(1000).getBody();
+        File temp = new File(appConfiguration.getChunkedUploadPath(), Objects.requireNonNull(session).getId());
+        Assertions.assertEquals(1000, temp.length());
+        Assertions.assertEquals(0, session.getOffset());
+    }
+
+    @Test
+    public void startUpload_whenSizeExceedsMaxAttachmentSize_receivePayloadTooLarge() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        long size = appConfiguration.getMaxAttachmentSize().toBytes() + 1;
+        Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, startUpload(size).getStatusCode());
+    }
+
+    @Test
+    public void completeUpload_whenChunksArriveOutOfOrder_storesAttachmentMatchingUpload() throws IOException {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        byte[] image = readImage();
+        int half = image.length / 2;
+        String id = Objects.requireNonNull(startUpload(image.length).getBody()).getId();
+        uploadChunk(id, half, Arrays.copyOfRange(image, half, image.length), UploadSessionVM.class);
+        uploadChunk(id, 0, Arrays.copyOfRange(image, 0, half), UploadSessionVM.class);
+
+        ResponseEntity<FileAttachment> response = completeUpload(id, FileAttachment.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        FileAttachment storedFile = fileAttachmentRepository.findAll().get(0);
+        Assertions.assertEquals("image/png", storedFile.getFileType());
+        File storedImage = storageLayout.path(appConfiguration.getAttachmentsFolder(), storedFile.getName()).toFile();
+        Assertions.assertArrayEquals(image, FileUtils.readFileToByteArray(storedImage));
+        Assertions.assertFalse(new File(appConfiguration.getChunkedUploadPath(), id).exists());
+    }
+
+    @Test
+    public void getUpload_afterFirstChunk_returnsOffsetToResumeFrom() throws IOException {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        byte[] image = readImage();
+        String id = Objects.requireNonNull(startUpload(image.length).getBody()).getId();
+        uploadChunk(id, 0, Arrays.copyOfRange(image, 0, 100), UploadSessionVM.class);
+
+        UploadSessionVM session = testRestTemplate.getForObject(API_1_0_DISCUSSION + "/upload/sessions/" + id, UploadSessionVM.class);
+
+        Assertions.assertEquals(100, session.getOffset());
+        Assertions.assertEquals(100, session.getReceived());
+    }
+
+    @Test
+    public void completeUpload_whenBytesAreMissing_receiveBadRequest() throws IOException {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        byte[] image = readImage();
+        String id = Objects.requireNonNull(startUpload(image.length).getBody()).getId();
+        uploadChunk(id, 0, Arrays.copyOfRange(image, 0, 100), UploadSessionVM.class);
+
+        ResponseEntity<Object> response = completeUpload(id, Object.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertEquals(0, fileAttachmentRepository.count());
+    }
+
+    @Test
+    public void uploadChunk_whenChunkRunsPastDeclaredSize_receiveBadRequest() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        String id = Objects.requireNonNull(startUpload(10).getBody()).getId();
+        ResponseEntity<Object> response = uploadChunk(id, 5, new byte[10], Object.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void uploadChunk_toUploadOfAnotherUser_receiveNotFound() {
+        userService.save(TestUtil.createValidUser("user1"));
+        userService.save(TestUtil.createValidUser("user2"));
+        authenticate("user1");
+        String id = Objects.requireNonNull(startUpload(10).getBody()).getId();
+        testRestTemplate.getRestTemplate().getInterceptors().clear();
+        authenticate("user2");
+        ResponseEntity<Object> response = uploadChunk(id, 0, new byte[10], Object.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void expireAbandoned_whenUploadIsIdlePastTtl_removesSessionAndTempFile() {
+        userService.save(TestUtil.createValidUser("user1"));
+        authenticate("user1");
+        String id = Objects.requireNonNull(startUpload(10).getBody()).getId();
+        Duration ttl = appConfiguration.getChunkedUploadTtl();
+        appConfiguration.setChunkedUploadTtl(Duration.ofMillis(-1));
+        try {
+            chunkedUploadService.expireAbandoned();
+        } finally {
+            appConfiguration.setChunkedUploadTtl(ttl);
+        }
+        Assertions.assertFalse(new File(appConfiguration.getChunkedUploadPath(), id).exists());
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, uploadChunk(id, 0, new byte[10], Object.class).getStatusCode());
+    }
 }
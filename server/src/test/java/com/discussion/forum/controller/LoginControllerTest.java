@@ -145,4 +145,53 @@ public class LoginControllerTest {
         Map<String, Object> body = response.getBody();
         Assertions.assertFalse(Objects.requireNonNull(body).containsKey("password"));
     }
+
+    @Test
+    public void postLogin_withValidCredentials_receiveAccessToken() {
+        userService.save(TestUtil.createValidUser());
+        authenticate();
+        ResponseEntity<Map<String, Object>> response = login(new ParameterizedTypeReference<Map<String, Object>>() {});
+        Map<String, Object> body = response.getBody();
+        Assertions.assertNotNull(Objects.requireNonNull(body).get("token"));
+    }
+
+    @Test
+    public void postLogin_withValidAccessToken_receiveOk() {
+        User inDB = userService.save(TestUtil.createValidUser());
+        authenticate();
+        String token = (String) Objects.requireNonNull(login(new ParameterizedTypeReference<Map<String, Object>>() {}).getBody()).get("token");
+        testRestTemplate.getRestTemplate().getInterceptors().clear();
+        testRestTemplate.getRestTemplate().getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().setBearerAuth(token);
+            return execution.execute(request, body);
+        });
+        ResponseEntity<Map<String, Object>> response = login(new ParameterizedTypeReference<Map<String, Object>>() {});
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(inDB.getId(), ((Number) Objects.requireNonNull(response.getBody()).get("id")).longValue());
+    }
+
+    @Test
+    public void postLogin_withValidAccessToken_receiveUserProfile() {
+        User inDB = userService.save(TestUtil.createValidUser());
+        authenticate();
+        String token = (String) Objects.requireNonNull(login(new ParameterizedTypeReference<Map<String, Object>>() {}).getBody()).get("token");
+        testRestTemplate.getRestTemplate().getInterceptors().clear();
+        testRestTemplate.getRestTemplate().getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().setBearerAuth(token);
+            return execution.execute(request, body);
+        });
+        Map<String, Object> body = login(new ParameterizedTypeReference<Map<String, Object>>() {}).getBody();
+        Assertions.assertEquals(inDB.getDisplayName(), Objects.requireNonNull(body).get("displayName"));
+        Assertions.assertEquals(inDB.getImage(), body.get("image"));
+    }
+
+    @Test
+    public void postLogin_withTamperedAccessToken_receiveUnauthorized() {
+        testRestTemplate.getRestTemplate().getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().setBearerAuth("MTp0ZXN0LXVzZXI.c2lnbmF0dXJl");
+            return execution.execute(request, body);
+        });
+        ResponseEntity<Object> response = login(Object.class);
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
 }
@@ -1,11 +1,17 @@
 package com.discussion.forum.controller;
 
+import com.discussion.forum.cache.UserDirectory;
+import com.discussion.forum.cache.UserSuggestionIndex;
 import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
 import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.CursorPageVM;
 import com.discussion.forum.domain.vm.UserUpdateVM;
 import com.discussion.forum.domain.vm.UserVM;
 import com.discussion.forum.exception.ApiErrorException;
+import com.discussion.forum.repository.StoredBlobRepository;
 import com.discussion.forum.repository.UserRepository;
+import com.discussion.forum.service.FileDeletionQueue;
 import com.discussion.forum.service.UserService;
 import com.discussion.forum.utils.TestPage;
 import com.discussion.forum.utils.TestUtil;
@@ -41,6 +47,9 @@ public class UserControllerTest {
     @Autowired
     TestRestTemplate testRestTemplate;
 
+    @Autowired
+    StoredBlobRepository storedBlobRepository;
+
     @Autowired
     UserRepository userRepository;
 
@@ -50,9 +59,24 @@ public class UserControllerTest {
     @Autowired
     AppConfiguration appConfiguration;
 
+    @Autowired
+    StorageLayout storageLayout;
+
+    @Autowired
+    FileDeletionQueue fileDeletionQueue;
+
+    @Autowired
+    UserDirectory userDirectory;
+
+    @Autowired
+    UserSuggestionIndex userSuggestionIndex;
+
     @BeforeEach
     public void cleanup() {
+        storedBlobRepository.deleteAll();
         userRepository.deleteAll();
+        userDirectory.reload();
+        userSuggestionIndex.reload();
         testRestTemplate.getRestTemplate().getInterceptors().clear();
     }
 
@@ -244,6 +268,14 @@ public class UserControllerTest {
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    public void postUser_whenAnotherUserHasSameUsername_receiveUsernameValidationError() {
+        userRepository.save(TestUtil.createValidUser());
+        User user = TestUtil.createValidUser();
+        ResponseEntity<ApiErrorException> response = postSignup(user, ApiErrorException.class);
+        Assertions.assertEquals("This name is in use", Objects.requireNonNull(response.getBody()).getValidationErrors().get("username"));
+    }
+
     @Test
     public void getUsers_whenThereAreNoUsersInDB_receiveOK() {
         ResponseEntity<Object> response = getUsers(new ParameterizedTypeReference<Object>() {
@@ -261,6 +293,7 @@ public class UserControllerTest {
     @Test
     public void getUsers_whenThereIsAUserInDB_receivePageWithUser() {
         userRepository.save(TestUtil.createValidUser());
+        userDirectory.reload();
         ResponseEntity<TestPage<Object>> response = getUsers(new ParameterizedTypeReference<TestPage<Object>>() {
         });
         Assertions.assertEquals(1, Objects.requireNonNull(response.getBody()).getNumberOfElements());
@@ -269,6 +302,7 @@ public class UserControllerTest {
     @Test
     public void getUsers_whenThereIsAUserInDB_receiveUserWithoutPassword() {
         userRepository.save(TestUtil.createValidUser());
+        userDirectory.reload();
         ResponseEntity<TestPage<Map<String, Object>>> response = getUsers(new ParameterizedTypeReference<TestPage<Map<String, Object>>>() {
         });
         Map<String, Object> entity = Objects.requireNonNull(response.getBody()).getContent().get(0);
@@ -280,6 +314,7 @@ public class UserControllerTest {
         IntStream.rangeClosed(1, 20).mapToObj(i -> "test-user-" + i)
                 .map(TestUtil::createValidUser)
                 .forEach(userRepository::save);
+        userDirectory.reload();
         String path = API_1_0_USERS + "?page=0&size=3";
         ResponseEntity<TestPage<Object>> response = getUsers(path, new ParameterizedTypeReference<TestPage<Object>>() {
         });
@@ -328,6 +363,94 @@ public class UserControllerTest {
         Assertions.assertEquals(2, Objects.requireNonNull(response.getBody()).getTotalElements());
     }
 
+    private CursorPageVM<UserVM> getUserDirectory(String cursor, int size) {
+        String path = API_1_0_USERS + "?cursor=" + cursor + "&size=" + size;
+        return testRestTemplate.exchange(path, HttpMethod.GET, null, new ParameterizedTypeReference<CursorPageVM<UserVM>>() {
+        }).getBody();
+    }
+
+    @Test
+    public void getUserDirectory_whenCursorIsEmpty_receiveFirstUsersInIdOrder() {
+        User user1 = userService.save(TestUtil.createValidUser("user1"));
+        User user2 = userService.save(TestUtil.createValidUser("user2"));
+        userService.save(TestUtil.createValidUser("user3"));
+        CursorPageVM<UserVM> page = Objects.requireNonNull(getUserDirectory("", 2));
+        Assertions.assertEquals(List.of(user1.getId(), user2.getId()),
+                page.getContent().stream().map(UserVM::getId).collect(Collectors.toList()));
+        Assertions.assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getUserDirectory_withNextCursor_receiveRemainingUsersAndNoCursor() {
+        userService.save(TestUtil.createValidUser("user1"));
+        userService.save(TestUtil.createValidUser("user2"));
+        User user3 = userService.save(TestUtil.createValidUser("user3"));
+        String cursor = Objects.requireNonNull(getUserDirectory("", 2)).getNextCursor();
+        CursorPageVM<UserVM> page = Objects.requireNonNull(getUserDirectory(cursor, 2));
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(user3.getId(), page.getContent().get(0).getId());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getUserDirectory_whenUserLoggedIn_receivePageWithoutLoggedInUser() {
+        userService.save(TestUtil.createValidUser("user1"));
+        userService.save(TestUtil.createValidUser("user2"));
+        authenticate("user1");
+        CursorPageVM<UserVM> page = Objects.requireNonNull(getUserDirectory("", 2));
+        Assertions.assertEquals(List.of("user2"), page.getContent().stream().map(UserVM::getUsername).collect(Collectors.toList()));
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getUserDirectory_afterUserUpdated_receiveUpdatedDisplayName() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        authenticate(user.getUsername());
+        UserUpdateVM updatedUser = createValidUserUpdateVM();
+        putUser(user.getId(), new HttpEntity<>(updatedUser), Object.class);
+        testRestTemplate.getRestTemplate().getInterceptors().clear();
+        CursorPageVM<UserVM> page = Objects.requireNonNull(getUserDirectory("", 10));
+        Assertions.assertEquals(updatedUser.getDisplayName(), page.getContent().get(0).getDisplayName());
+    }
+
+    @Test
+    public void getUserDirectory_withInvalidCursor_receiveBadRequest() {
+        ResponseEntity<Object> response = testRestTemplate.getForEntity(API_1_0_USERS + "?cursor=not-a-cursor", Object.class);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private List<UserVM> suggestUsers(String query) {
+        return testRestTemplate.exchange(API_1_0_USERS + "/suggest?q=" + query, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<UserVM>>() {
+                }).getBody();
+    }
+
+    @Test
+    public void suggestUsers_withPrefixOfUsername_receiveMatchingUsers() {
+        userService.save(TestUtil.createValidUser("user1"));
+        userService.save(TestUtil.createValidUser("other"));
+        List<UserVM> users = Objects.requireNonNull(suggestUsers("use"));
+        Assertions.assertEquals(List.of("user1"), users.stream().map(UserVM::getUsername).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void suggestUsers_afterDisplayNameUpdated_receiveUserForNewName() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        authenticate(user.getUsername());
+        UserUpdateVM updatedUser = createValidUserUpdateVM();
+        putUser(user.getId(), new HttpEntity<>(updatedUser), Object.class);
+        List<UserVM> users = Objects.requireNonNull(suggestUsers(updatedUser.getDisplayName().substring(0, 4)));
+        Assertions.assertEquals(1, users.size());
+        Assertions.assertEquals(updatedUser.getDisplayName(), users.get(0).getDisplayName());
+    }
+
+    @Test
+    public void getUserByUsername_whenUsernameIsSuggest_receiveUser() {
+        userService.save(TestUtil.createValidUser("suggest"));
+        ResponseEntity<UserVM> response = getUser("suggest", UserVM.class);
+        Assertions.assertEquals("suggest", Objects.requireNonNull(response.getBody()).getUsername());
+    }
+
     @Test
     public void getUserByUsername_whenUserExist_receiveOk() {
         String username = "test-user";
@@ -412,6 +535,19 @@ public class UserControllerTest {
         Assertions.assertEquals(updatedUser.getDisplayName(), userInDB.get().getDisplayName());
     }
 
+    @Test
+    public void getUserByUsername_afterUpdate_receiveUpdatedDisplayName() {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        getUser("user1", UserVM.class);
+        authenticate(user.getUsername());
+        UserUpdateVM updatedUser = createValidUserUpdateVM();
+        putUser(user.getId(), new HttpEntity<>(updatedUser), Object.class);
+
+        ResponseEntity<UserVM> response = getUser("user1", UserVM.class);
+
+        Assertions.assertEquals(updatedUser.getDisplayName(), Objects.requireNonNull(response.getBody()).getDisplayName());
+    }
+
     @Test
     public void putUser_whenValidRequestBodyFromAuthorizedUser_receiveUserVMWithUpdatedDisplayName() {
         User user = userService.save(TestUtil.createValidUser("user1"));
@@ -438,6 +574,20 @@ public class UserControllerTest {
         Assertions.assertNotEquals("profile-image.png", Objects.requireNonNull(response.getBody()).getImage());
     }
 
+    @Test
+    public void putUser_withImageWithValidHeaderAndCorruptTail_receiveBadRequest() throws IOException {
+        User user = userService.save(TestUtil.createValidUser("user1"));
+        authenticate(user.getUsername());
+        UserUpdateVM updatedUser = createValidUserUpdateVM();
+        updatedUser.setImage(readFileToBase64("profile.png") + "!!!!");
+
+        HttpEntity<UserUpdateVM> requestEntity = new HttpEntity<>(updatedUser);
+        ResponseEntity<Object> response = putUser(user.getId(), requestEntity, Object.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertEquals(user.getImage(), userRepository.findByUsername("user1").get().getImage());
+    }
+
     @Test
     public void putUser_withValidRequestBodyWithSupportedImageFromAuthorizedUser_imageIsStoredUnderProfileFolder() throws IOException {
         User user = userService.save(TestUtil.createValidUser("user1"));
@@ -452,9 +602,7 @@ public class UserControllerTest {
 
         String storedImageName = Objects.requireNonNull(response.getBody()).getImage();
 
-        String profilePicturePath = appConfiguration.getFullProfileImagesPath() + "/" + storedImageName;
-
-        File storedImage = new File(profilePicturePath);
+        File storedImage = storageLayout.path(appConfiguration.getProfileImagesFolder(), storedImageName).toFile();
         Assertions.assertTrue(storedImage.exists());
     }
 
@@ -547,11 +695,12 @@ public class UserControllerTest {
         HttpEntity<UserUpdateVM> requestEntity = new HttpEntity<>(updatedUser);
         ResponseEntity<UserVM> response = putUser(user.getId(), requestEntity, UserVM.class);
 
+        updatedUser.setImage(readFileToBase64("test-png.png"));
         putUser(user.getId(), requestEntity, UserVM.class);
 
         String storedImageName = Objects.requireNonNull(response.getBody()).getImage();
-        String profilePicturePath = appConfiguration.getFullProfileImagesPath() + "/" + storedImageName;
-        File storedImage = new File(profilePicturePath);
+        fileDeletionQueue.drain();
+        File storedImage = storageLayout.path(appConfiguration.getProfileImagesFolder(), storedImageName).toFile();
         Assertions.assertFalse(storedImage.exists());
     }
 }
@@ -0,0 +1,125 @@
+package com.discussion.forum.repository;
+
+import com.discussion.forum.domain.Discussion;
+import com.discussion.forum.domain.FileAttachment;
+import com.discussion.forum.domain.User;
+import com.discussion.forum.domain.vm.DiscussionView;
+import com.discussion.forum.utils.SqlStatementInspector;
+import com.discussion.forum.utils.TestUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.discussion.forum.utils.SqlStatementInspector")
+@ActiveProfiles("test")
+public class DiscussionRepositoryTest {
+
+    @Autowired
+    DiscussionRepository discussionRepository;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User user;
+
+    Discussion latest;
+
+    @BeforeEach
+    public void setup() {
+        user = testEntityManager.persist(TestUtil.createValidUser());
+        for (int i = 0; i < 10; i++) {
+            Discussion discussion = TestUtil.createValidDiscussion();
+            discussion.setTimestamp(new Date());
+            discussion.setUser(user);
+            latest = testEntityManager.persist(discussion);
+        }
+        FileAttachment attachment = new FileAttachment();
+        attachment.setName("attached.png");
+        attachment.setFileType("image/png");
+        attachment.setDiscussion(latest);
+        testEntityManager.persist(attachment);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        SqlStatementInspector.clear();
+    }
+
+    private Specification<Discussion> idLessThan(long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("id"), id);
+    }
+
+    private String explainFeedQuery() {
+        String sql = SqlStatementInspector.getStatements().stream()
+                .filter(statement -> statement.contains(" from discussion "))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        String bound = sql.replace("?", "1000");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + bound, String.class));
+    }
+
+    @Test
+    public void findNewestFirst_whenLimitGiven_returnsNewestDiscussionsInDescendingOrder() {
+        List<Discussion> discussions = discussionRepository.findNewestFirst(null, 3);
+        Assertions.assertEquals(3, discussions.size());
+        Assertions.assertTrue(discussions.get(0).getId() > discussions.get(1).getId());
+    }
+
+    @Test
+    public void findNewestFirst_whenCursorGiven_returnsOnlyOlderDiscussions() {
+        List<Discussion> firstPage = discussionRepository.findNewestFirst(null, 5);
+        long cursor = firstPage.get(4).getId();
+        List<Discussion> secondPage = discussionRepository.findNewestFirst(Specification.where(idLessThan(cursor)), 5);
+        Assertions.assertEquals(5, secondPage.size());
+        Assertions.assertTrue(secondPage.stream().allMatch(discussion -> discussion.getId() < cursor));
+    }
+
+    @Test
+    public void findNewestFirst_whenCursorGiven_runsWithoutCountQuery() {
+        discussionRepository.findNewestFirst(Specification.where(idLessThan(Long.MAX_VALUE)), 5);
+        Assertions.assertTrue(SqlStatementInspector.getStatements().stream().noneMatch(sql -> sql.contains("count(")));
+    }
+
+    @Test
+    public void findNewestFirst_whenCursorGiven_usesIndexRangeScan() {
+        discussionRepository.findNewestFirst(Specification.where(idLessThan(Long.MAX_VALUE)), 5);
+        String plan = explainFeedQuery();
+        Assertions.assertFalse(plan.contains("tableScan"), plan);
+        Assertions.assertTrue(plan.contains("ID < "), plan);
+    }
+
+    @Test
+    public void findViewsNewestFirst_whenLimitGiven_returnsViewsWithUserAndAttachment() {
+        List<DiscussionView> views = discussionRepository.findViewsNewestFirst(null, 2);
+        Assertions.assertEquals(latest.getId(), views.get(0).getId());
+        Assertions.assertEquals(user.getUsername(), views.get(0).getUser().getUsername());
+        Assertions.assertEquals("attached.png", views.get(0).getAttachment().getName());
+        Assertions.assertNull(views.get(1).getAttachment());
+    }
+
+    @Test
+    public void findViewsNewestFirst_whenCalled_runsSingleStatement() {
+        discussionRepository.findViewsNewestFirst(Specification.where(idLessThan(Long.MAX_VALUE)), 5);
+        Assertions.assertEquals(1, SqlStatementInspector.getStatements().size());
+    }
+
+    @Test
+    public void findViewsByUserId_whenUserHasDiscussions_returnsPageOfViews() {
+        Page<DiscussionView> page = discussionRepository.findViewsByUserId(user.getId(), PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")));
+        Assertions.assertEquals(10, page.getTotalElements());
+        Assertions.assertEquals(latest.getId(), page.getContent().get(0).getId());
+    }
+}
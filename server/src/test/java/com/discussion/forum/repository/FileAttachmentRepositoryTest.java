@@ -8,8 +8,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -85,4 +88,29 @@ public class FileAttachmentRepositoryTest {
         List<FileAttachment> attachments = fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(oneHourAgo);
         Assertions.assertEquals(1, attachments.size());
     }
+
+    @Test
+    public void findByDateBeforeAndDiscussionIsNull_whenPagedAfterId_returnsNextOrphansInIdOrder() {
+        FileAttachment first = testEntityManager.persist(getOneHourOldFileAttachment());
+        FileAttachment second = testEntityManager.persist(getOneHourOldFileAttachment());
+        FileAttachment third = testEntityManager.persist(getOneHourOldFileAttachment());
+        Date oneHourAgo = new Date(System.currentTimeMillis() - (60*60*1000));
+        List<FileAttachmentRepository.OrphanAttachment> page =
+                fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(oneHourAgo, first.getId(), PageRequest.of(0, 1));
+        Assertions.assertEquals(1, page.size());
+        Assertions.assertEquals(second.getId(), page.get(0).getId());
+        Assertions.assertNotEquals(third.getId(), page.get(0).getId());
+    }
+
+    @Test
+    public void deleteOrphansByIdIn_whenOneAttachmentHasDiscussion_deletesOnlyOrphans() {
+        Discussion discussion = testEntityManager.persist(TestUtil.createValidDiscussion());
+        FileAttachment attached = testEntityManager.persist(getOldFileAttachmentWithDiscussion(discussion));
+        FileAttachment orphan = testEntityManager.persist(getOneHourOldFileAttachment());
+        testEntityManager.flush();
+        int deleted = fileAttachmentRepository.deleteOrphansByIdIn(Arrays.asList(attached.getId(), orphan.getId()));
+        Assertions.assertEquals(1, deleted);
+        Assertions.assertEquals(Collections.singletonList(attached.getId()),
+                fileAttachmentRepository.findIdsByIdIn(Arrays.asList(attached.getId(), orphan.getId())));
+    }
 }
@@ -0,0 +1,115 @@
+package com.discussion.forum.service;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
+import com.discussion.forum.repository.StoredBlobRepository;
+import com.discussion.forum.service.impl.BlobStoreImpl;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class BlobStoreTest {
+
+    @Autowired
+    StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    AppConfiguration appConfiguration;
+
+    BlobStore blobStore;
+
+    @BeforeEach
+    public void init() {
+        appConfiguration = new AppConfiguration();
+        appConfiguration.setUploadPath("uploads-test");
+        new File(appConfiguration.getFullAttachmentsPath()).mkdirs();
+        blobStore = new BlobStoreImpl(new StorageLayout(appConfiguration), storedBlobRepository, transactionManager);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        FileUtils.cleanDirectory(new File(appConfiguration.getFullAttachmentsPath()));
+    }
+
+    private BlobStore.Blob store(String content) throws IOException {
+        return blobStore.store(appConfiguration.getAttachmentsFolder(),
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), Long.MAX_VALUE);
+    }
+
+    private File fileOf(String name) {
+        return new StorageLayout(appConfiguration).path(appConfiguration.getAttachmentsFolder(), name).toFile();
+    }
+
+    @Test
+    public void store_whenSameContentStoredTwice_keepsSingleCopy() throws IOException {
+        String first = store("same content").getName();
+        String second = store("same content").getName();
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1, fileOf(first).getParentFile().list().length);
+        Assertions.assertEquals(2, storedBlobRepository.findById("attachments/" + first).get().getRefCount());
+    }
+
+    @Test
+    public void store_whenContentDiffers_storesSeparateBlobs() throws IOException {
+        Assertions.assertNotEquals(store("first content").getName(), store("second content").getName());
+    }
+
+    @Test
+    public void release_whenOtherReferencesRemain_keepsFile() throws IOException {
+        String name = store("shared content").getName();
+        store("shared content");
+        blobStore.release(appConfiguration.getAttachmentsFolder(), name);
+        Assertions.assertTrue(fileOf(name).exists());
+    }
+
+    @Test
+    public void release_whenLastReferenceReleased_removesFileAndRecord() throws IOException {
+        String name = store("shared content").getName();
+        store("shared content");
+        blobStore.release(appConfiguration.getAttachmentsFolder(), name);
+        blobStore.release(appConfiguration.getAttachmentsFolder(), name);
+        Assertions.assertFalse(fileOf(name).exists());
+        Assertions.assertFalse(storedBlobRepository.existsById("attachments/" + name));
+    }
+
+    @Test
+    public void release_whenNameIsLegacyRandomName_removesFile() throws IOException {
+        String legacyName = "0123456789abcdef0123456789abcdef";
+        FileUtils.writeStringToFile(fileOf(legacyName), "legacy", StandardCharsets.UTF_8);
+        blobStore.release(appConfiguration.getAttachmentsFolder(), legacyName);
+        Assertions.assertFalse(fileOf(legacyName).exists());
+    }
+
+    @Test
+    public void release_whenLegacyFileIsInFlatFolder_removesFile() throws IOException {
+        String legacyName = "fedcba9876543210fedcba9876543210";
+        File flatFile = new File(appConfiguration.getFullAttachmentsPath() + "/" + legacyName);
+        FileUtils.writeStringToFile(flatFile, "legacy", StandardCharsets.UTF_8);
+        Assertions.assertTrue(blobStore.release(appConfiguration.getAttachmentsFolder(), legacyName));
+        Assertions.assertFalse(flatFile.exists());
+    }
+
+    @Test
+    public void unlinkIfUnreferenced_whenContentStoredAgainAfterRelease_keepsFile() throws IOException {
+        String name = store("stored again").getName();
+        Assertions.assertTrue(blobStore.releaseReference(appConfiguration.getAttachmentsFolder(), name));
+        store("stored again");
+        Assertions.assertFalse(blobStore.unlinkIfUnreferenced(appConfiguration.getAttachmentsFolder(), name));
+        Assertions.assertTrue(fileOf(name).exists());
+    }
+}
@@ -0,0 +1,139 @@
+package com.discussion.forum.service;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.service.impl.FileDeletionQueueImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class FileDeletionQueueTest {
+
+    AppConfiguration appConfiguration;
+
+    BlobStore blobStore;
+
+    ImageVariantService imageVariantService;
+
+    SimpleMeterRegistry meterRegistry;
+
+    FileDeletionQueueImpl fileDeletionQueue;
+
+    @BeforeEach
+    public void init() throws IOException {
+        appConfiguration = new AppConfiguration();
+        appConfiguration.setUploadPath("uploads-test");
+        appConfiguration.setDeletionQueuePath("uploads-test/.deletion-queue-test.log");
+        appConfiguration.setDeletionQueueInterval(Duration.ofHours(1));
+        appConfiguration.setDeletionQueueRetryDelay(Duration.ZERO);
+        appConfiguration.setDeletionQueueMaxAttempts(3);
+        blobStore = Mockito.mock(BlobStore.class);
+        imageVariantService = Mockito.mock(ImageVariantService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        fileDeletionQueue = start();
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        fileDeletionQueue.stop();
+        Files.deleteIfExists(logPath());
+    }
+
+    private FileDeletionQueueImpl start() throws IOException {
+        FileDeletionQueueImpl queue = new FileDeletionQueueImpl(appConfiguration, blobStore, imageVariantService, meterRegistry);
+        queue.start();
+        return queue;
+    }
+
+    private Path logPath() {
+        return new File(appConfiguration.getDeletionQueuePath()).toPath();
+    }
+
+    @Test
+    public void drain_whenFileQueued_unlinksFileAndVariants() throws IOException {
+        Mockito.when(blobStore.unlinkIfUnreferenced("attachments", "random-file")).thenReturn(true);
+        fileDeletionQueue.enqueue("attachments", "random-file");
+        fileDeletionQueue.drain();
+        Mockito.verify(blobStore).unlinkIfUnreferenced("attachments", "random-file");
+        Mockito.verify(imageVariantService).deleteVariants("attachments", "random-file");
+        Assertions.assertEquals(0, fileDeletionQueue.pending());
+    }
+
+    @Test
+    public void drain_whenFileWasStoredAgain_keepsVariants() throws IOException {
+        Mockito.when(blobStore.unlinkIfUnreferenced("attachments", "random-file")).thenReturn(false);
+        fileDeletionQueue.enqueue("attachments", "random-file");
+        fileDeletionQueue.drain();
+        Mockito.verifyNoInteractions(imageVariantService);
+    }
+
+    @Test
+    public void drain_whenQueueIsEmpty_truncatesLog() throws IOException {
+        fileDeletionQueue.enqueue("attachments", "random-file");
+        Assertions.assertTrue(Files.size(logPath()) > 0);
+        fileDeletionQueue.drain();
+        Assertions.assertEquals(0, Files.size(logPath()));
+    }
+
+    @Test
+    public void start_whenLogHasPendingEntries_replaysThem() throws IOException {
+        fileDeletionQueue.enqueue("attachments", "first-file");
+        fileDeletionQueue.enqueue("profile", "second-file");
+        fileDeletionQueue.stop();
+
+        fileDeletionQueue = start();
+        Assertions.assertEquals(2, fileDeletionQueue.pending());
+        fileDeletionQueue.drain();
+        Mockito.verify(blobStore).unlinkIfUnreferenced("attachments", "first-file");
+        Mockito.verify(blobStore).unlinkIfUnreferenced("profile", "second-file");
+    }
+
+    @Test
+    public void start_whenLogHasCompletedAndTornEntries_replaysOnlyPendingOnes() throws IOException {
+        fileDeletionQueue.stop();
+        Files.write(logPath(), "A 1 attachments done-file\nC 1\nA 2 attachments pending-file\nA 3 attachments torn-fi"
+                .getBytes(StandardCharsets.UTF_8));
+
+        fileDeletionQueue = start();
+        Assertions.assertEquals(1, fileDeletionQueue.pending());
+        fileDeletionQueue.drain();
+        Mockito.verify(blobStore).unlinkIfUnreferenced("attachments", "pending-file");
+        Mockito.verify(blobStore, Mockito.never()).unlinkIfUnreferenced("attachments", "done-file");
+        Mockito.verify(blobStore, Mockito.never()).unlinkIfUnreferenced("attachments", "torn-fi");
+    }
+
+    @Test
+    public void drain_whenVariantDeletionFails_retriesIt() throws IOException {
+        Mockito.when(blobStore.unlinkIfUnreferenced("attachments", "random-file")).thenReturn(true);
+        Mockito.doThrow(new IOException("disk error")).doNothing()
+                .when(imageVariantService).deleteVariants("attachments", "random-file");
+        fileDeletionQueue.enqueue("attachments", "random-file");
+        fileDeletionQueue.drain();
+        fileDeletionQueue.drain();
+        Mockito.verify(imageVariantService, Mockito.times(2)).deleteVariants("attachments", "random-file");
+        Assertions.assertEquals(1, meterRegistry.counter("files.deletion.retried").count());
+        Assertions.assertEquals(0, fileDeletionQueue.pending());
+    }
+
+    @Test
+    public void drain_whenDeletionKeepsFailing_retriesThenCountsFailure() throws IOException {
+        Mockito.when(blobStore.unlinkIfUnreferenced("attachments", "random-file")).thenThrow(new IOException("disk error"));
+        fileDeletionQueue.enqueue("attachments", "random-file");
+        for (int i = 0; i < 3; i++) {
+            fileDeletionQueue.drain();
+        }
+        Mockito.verify(blobStore, Mockito.times(3)).unlinkIfUnreferenced("attachments", "random-file");
+        Assertions.assertEquals(2, meterRegistry.counter("files.deletion.retried").count());
+        Assertions.assertEquals(1, meterRegistry.counter("files.deletion.failed").count());
+        Assertions.assertEquals(0, fileDeletionQueue.pending());
+    }
+}
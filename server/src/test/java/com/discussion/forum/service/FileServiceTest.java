@@ -4,39 +4,57 @@ import com.discussion.forum.configuration.AppConfiguration;
 import com.discussion.forum.domain.FileAttachment;
 import com.discussion.forum.repository.FileAttachmentRepository;
 import com.discussion.forum.service.impl.FileServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Random;
 
 @ActiveProfiles("test")
 public class FileServiceTest {
 
     FileService fileService;
 
+    BlobStore blobStore;
+
     AppConfiguration appConfiguration;
 
-    @MockBean
-    @Autowired
     FileAttachmentRepository fileAttachmentRepository;
 
+    FileDeletionQueue fileDeletionQueue;
+
+    PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void init() {
         appConfiguration = new AppConfiguration();
         appConfiguration.setUploadPath("uploads-test");
 
-        fileService = new FileServiceImpl(appConfiguration, fileAttachmentRepository);
+        blobStore = Mockito.mock(BlobStore.class);
+        fileAttachmentRepository = Mockito.mock(FileAttachmentRepository.class);
+        fileDeletionQueue = Mockito.mock(FileDeletionQueue.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        fileService = new FileServiceImpl(appConfiguration, fileAttachmentRepository, blobStore,
+                Mockito.mock(ImageVariantService.class), fileDeletionQueue,
+                transactionManager, new SimpleMeterRegistry());
 
         new File(appConfiguration.getUploadPath()).mkdir();
         new File(appConfiguration.getFullProfileImagesPath()).mkdir();
@@ -58,43 +76,122 @@ public class FileServiceTest {
         Assertions.assertTrue(fileType.toLowerCase().contains("image/png"));
     }
 
-//    @Test
-//    public void cleanupStorage_whenOldFilesExist_removesFilesFromStorage() throws IOException {
-//        String fileName = "random-file";
-//        String filePath = appConfiguration.getFullAttachmentsPath() + "/" + fileName;
-//        File source = new ClassPathResource("profile.png").getFile();
-//        File target = new File(filePath);
-//        FileUtils.copyFile(source, target);
-//
-//        FileAttachment fileAttachment = new FileAttachment();
-//        fileAttachment.setId(5);
-//        fileAttachment.setName(fileName);
-//
-//        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class)))
-//                .thenReturn(Arrays.asList(fileAttachment));
-//
-//        fileService.cleanupStorage();
-//        File storedImage = new File(filePath);
-//        Assertions.assertFalse(storedImage.exists());
-//    }
-
-//    @Test
-//    public void cleanupStorage_whenOldFilesExist_remoevsFileAttachmentFromDatabase() throws IOException {
-//        String fileName = "random-file";
-//        String filePath = appConfiguration.getFullAttachmentsPath() + "/" + fileName;
-//        File source = new ClassPathResource("profile.png").getFile();
-//        File target = new File(filePath);
-//        FileUtils.copyFile(source, target);
-//
-//        FileAttachment fileAttachment = new FileAttachment();
-//        fileAttachment.setId(5);
-//        fileAttachment.setName(fileName);
-//
-//        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class)))
-//                .thenReturn(Collections.singletonList(fileAttachment));
-//
-//        fileService.cleanupStorage();
-//        Mockito.verify(fileAttachmentRepository).deleteById(5L);
-//    }
+    @Test
+    public void detectBase64Type_whenPngFileProvided_returnsImagePng() throws IOException {
+        ClassPathResource resourceFile = new ClassPathResource("test-png.png");
+        String base64 = Base64.getEncoder().encodeToString(FileUtils.readFileToByteArray(resourceFile.getFile()));
+        Assertions.assertEquals("image/png", fileService.detectBase64Type(base64));
+    }
+
+    @Test
+    public void saveProfileImage_whenBase64Provided_storesDecodedBytes() throws IOException {
+        byte[] image = new byte[200_000];
+        new Random(7).nextBytes(image);
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        Mockito.when(blobStore.store(Mockito.eq(appConfiguration.getProfileImagesFolder()), Mockito.any(InputStream.class), Mockito.anyLong()))
+                .thenAnswer(invocation -> {
+                    invocation.<InputStream>getArgument(1).transferTo(stored);
+                    return new BlobStore.Blob("stored-name", new byte[0]);
+                });
+
+        String name = fileService.saveProfileImage(Base64.getEncoder().encodeToString(image));
+        Assertions.assertEquals("stored-name", name);
+        Assertions.assertArrayEquals(image, stored.toByteArray());
+    }
+
+    private FileAttachmentRepository.OrphanAttachment orphan(long id, String name) {
+        return new FileAttachmentRepository.OrphanAttachment() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    @Test
+    public void cleanupStorage_whenOldFilesExist_releasesFilesFromStorage() {
+        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(orphan(5, "random-file"), orphan(6, "other-file")));
+        Mockito.when(fileAttachmentRepository.deleteOrphansByIdIn(Mockito.anyCollection())).thenReturn(2);
+
+        fileService.cleanupStorage();
+        Mockito.verify(blobStore).releaseReference(appConfiguration.getAttachmentsFolder(), "random-file");
+        Mockito.verify(blobStore).releaseReference(appConfiguration.getAttachmentsFolder(), "other-file");
+    }
+
+    @Test
+    public void cleanupStorage_whenOldFilesExist_removesFileAttachmentsFromDatabaseInOneStatement() {
+        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(orphan(5, "random-file"), orphan(6, "other-file")));
+        Mockito.when(fileAttachmentRepository.deleteOrphansByIdIn(Mockito.anyCollection())).thenReturn(2);
+
+        fileService.cleanupStorage();
+        Mockito.verify(fileAttachmentRepository).deleteOrphansByIdIn(Arrays.asList(5L, 6L));
+    }
 
+    @Test
+    public void cleanupStorage_whenBatchIsFull_continuesAfterLastId() {
+        appConfiguration.setOrphanCleanupBatchSize(2);
+        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(orphan(5, null), orphan(6, null)));
+        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class), Mockito.eq(6L), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.singletonList(orphan(9, null)));
+        Mockito.when(fileAttachmentRepository.deleteOrphansByIdIn(Mockito.anyCollection())).thenReturn(2, 1);
+
+        fileService.cleanupStorage();
+        Mockito.verify(fileAttachmentRepository).deleteOrphansByIdIn(Collections.singletonList(9L));
+    }
+
+    @Test
+    public void cleanupStorage_whenAttachmentIsUsedBeforeDeletion_keepsItsFile() {
+        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(orphan(5, "random-file"), orphan(6, "attached-file")));
+        Mockito.when(fileAttachmentRepository.deleteOrphansByIdIn(Mockito.anyCollection())).thenReturn(1);
+        Mockito.when(fileAttachmentRepository.findIdsByIdIn(Mockito.anyCollection())).thenReturn(Collections.singletonList(6L));
+
+        fileService.cleanupStorage();
+        Mockito.verify(blobStore).releaseReference(appConfiguration.getAttachmentsFolder(), "random-file");
+        Mockito.verify(blobStore, Mockito.never()).releaseReference(appConfiguration.getAttachmentsFolder(), "attached-file");
+    }
+
+    @Test
+    public void cleanupStorage_whenOldFilesExist_releasesFilesInTheBatchDeleteTransaction() {
+        Mockito.when(fileAttachmentRepository.findByDateBeforeAndDiscussionIsNull(Mockito.any(Date.class), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(orphan(5, "random-file"), orphan(6, "other-file")));
+        Mockito.when(fileAttachmentRepository.deleteOrphansByIdIn(Mockito.anyCollection())).thenReturn(2);
+
+        fileService.cleanupStorage();
+        InOrder inOrder = Mockito.inOrder(transactionManager, fileAttachmentRepository, blobStore);
+        inOrder.verify(transactionManager).getTransaction(Mockito.any());
+        inOrder.verify(fileAttachmentRepository).deleteOrphansByIdIn(Arrays.asList(5L, 6L));
+        inOrder.verify(blobStore).releaseReference(appConfiguration.getAttachmentsFolder(), "random-file");
+        inOrder.verify(blobStore).releaseReference(appConfiguration.getAttachmentsFolder(), "other-file");
+        inOrder.verify(transactionManager).commit(Mockito.any());
+    }
+
+    @Test
+    public void cleanupStorage_whenBudgetIsSpent_stopsBeforeQuerying() {
+        appConfiguration.setOrphanCleanupBudget(Duration.ZERO);
+        fileService.cleanupStorage();
+        Mockito.verifyNoInteractions(fileAttachmentRepository);
+    }
+
+    @Test
+    public void deleteAttachmentImage_whenLastReferenceReleased_queuesFileForDeletion() {
+        Mockito.when(blobStore.releaseReference(appConfiguration.getAttachmentsFolder(), "random-file")).thenReturn(true);
+        fileService.deleteAttachmentImage("random-file");
+        Mockito.verify(fileDeletionQueue).enqueue(appConfiguration.getAttachmentsFolder(), "random-file");
+    }
+
+    @Test
+    public void deleteProfileImage_whenOtherReferencesRemain_doesNotQueueFile() {
+        Mockito.when(blobStore.releaseReference(appConfiguration.getProfileImagesFolder(), "random-file")).thenReturn(false);
+        fileService.deleteProfileImage("random-file");
+        Mockito.verifyNoInteractions(fileDeletionQueue);
+    }
 }
@@ -0,0 +1,172 @@
+package com.discussion.forum.service;
+
+import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
+import com.discussion.forum.service.impl.ImageVariantServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public class ImageVariantServiceTest {
+
+    AppConfiguration appConfiguration;
+
+    SimpleMeterRegistry meterRegistry;
+
+    ImageVariantServiceImpl imageVariantService;
+
+    @BeforeEach
+    public void init() {
+        appConfiguration = new AppConfiguration();
+        appConfiguration.setUploadPath("uploads-test");
+        appConfiguration.setImageVariantSizes(List.of(64, 32));
+        new File(appConfiguration.getFullProfileImagesPath()).mkdirs();
+        meterRegistry = new SimpleMeterRegistry();
+        imageVariantService = new ImageVariantServiceImpl(appConfiguration, new StorageLayout(appConfiguration), meterRegistry);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        imageVariantService.shutdown();
+        FileUtils.cleanDirectory(new File(appConfiguration.getFullProfileImagesPath()));
+    }
+
+    private String copyToProfileFolder(String resource, String name) throws IOException {
+        FileUtils.copyFile(new ClassPathResource(resource).getFile(),
+                new File(appConfiguration.getFullProfileImagesPath() + "/" + name));
+        return name;
+    }
+
+    private File variantOf(int size, String name) {
+        return new StorageLayout(appConfiguration).path(appConfiguration.getProfileImagesFolder() + "/variants/" + size, name).toFile();
+    }
+
+    private void awaitVariant(int size, String name) throws InterruptedException {
+        for (int i = 0; i < 100 && !variantOf(size, name).exists(); i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void generateVariants_whenImageIsPng_writesScaledCopyForEachSize() throws Exception {
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitVariant(32, name);
+        awaitVariant(64, name);
+        BufferedImage small = ImageIO.read(variantOf(32, name));
+        BufferedImage large = ImageIO.read(variantOf(64, name));
+        Assertions.assertTrue(Math.max(small.getWidth(), small.getHeight()) <= 32);
+        Assertions.assertTrue(Math.max(large.getWidth(), large.getHeight()) <= 64);
+    }
+
+    @Test
+    public void generateVariants_whenImageIsJpeg_keepsJpegFormat() throws Exception {
+        String name = copyToProfileFolder("test-jpg.jpg", "image-jpg");
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitVariant(32, name);
+        try (ImageInputStream input = ImageIO.createImageInputStream(variantOf(32, name))) {
+            Assertions.assertEquals("jpeg", ImageIO.getImageReaders(input).next().getFormatName().toLowerCase());
+        }
+    }
+
+    @Test
+    public void generateVariants_whenFileIsNotAnImage_writesNothing() throws Exception {
+        String name = copyToProfileFolder("test-txt.txt", "not-an-image");
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitCount("images.variants.unsupported");
+        Assertions.assertEquals(1, meterRegistry.counter("images.variants.unsupported").count());
+        Assertions.assertFalse(variantOf(32, name).exists());
+    }
+
+    private void awaitCount(String meter) throws InterruptedException {
+        for (int i = 0; i < 100 && meterRegistry.counter(meter).count() == 0; i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void generateVariants_whenImageHasTooManyPixels_marksItUnsupported() throws Exception {
+        imageVariantService.shutdown();
+        appConfiguration.setImageVariantMaxPixels(100);
+        imageVariantService = new ImageVariantServiceImpl(appConfiguration, new StorageLayout(appConfiguration), meterRegistry);
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitCount("images.variants.unsupported");
+        Assertions.assertEquals(1, meterRegistry.counter("images.variants.unsupported").count());
+        Assertions.assertFalse(variantOf(32, name).exists());
+    }
+
+    @Test
+    public void generateVariants_whenWriteFails_retriesOnNextRequest() throws Exception {
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        File variants = new File(appConfiguration.getFullProfileImagesPath() + "/variants");
+        FileUtils.touch(variants);
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitCount("images.variants.failed");
+        Assertions.assertEquals(1, meterRegistry.counter("images.variants.failed").count());
+        Assertions.assertEquals(0, meterRegistry.counter("images.variants.unsupported").count());
+
+        Files.delete(variants.toPath());
+        for (int i = 0; i < 100 && !variantOf(32, name).exists(); i++) {
+            imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+            Thread.sleep(50);
+        }
+        Assertions.assertTrue(variantOf(32, name).exists());
+    }
+
+    @Test
+    public void findVariant_whenVariantsExist_returnsSmallestSizeCoveringRequest() throws Exception {
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitVariant(32, name);
+        awaitVariant(64, name);
+        Optional<Path> variant = imageVariantService.findVariant(appConfiguration.getProfileImagesFolder(), name, 40);
+        Assertions.assertEquals(variantOf(64, name).toPath(), variant.get());
+    }
+
+    @Test
+    public void findVariant_whenRequestedSizeIsLargerThanAllVariants_returnsEmpty() throws Exception {
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        Assertions.assertFalse(imageVariantService.findVariant(appConfiguration.getProfileImagesFolder(), name, 500).isPresent());
+    }
+
+    @Test
+    public void selectSize_whenRequestedSizeIsBetweenVariants_returnsNextLargerSize() {
+        Assertions.assertEquals(32, imageVariantService.selectSize(20).getAsInt());
+        Assertions.assertEquals(64, imageVariantService.selectSize(33).getAsInt());
+        Assertions.assertFalse(imageVariantService.selectSize(65).isPresent());
+    }
+
+    @Test
+    public void findVariant_whenVariantIsMissing_schedulesGeneration() throws Exception {
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        Assertions.assertFalse(imageVariantService.findVariant(appConfiguration.getProfileImagesFolder(), name, 32).isPresent());
+        awaitVariant(32, name);
+        Assertions.assertTrue(variantOf(32, name).exists());
+    }
+
+    @Test
+    public void deleteVariants_whenVariantsExist_removesThem() throws Exception {
+        String name = copyToProfileFolder("test-png.png", "image-png");
+        imageVariantService.generateVariants(appConfiguration.getProfileImagesFolder(), name);
+        awaitVariant(32, name);
+        awaitVariant(64, name);
+        imageVariantService.deleteVariants(appConfiguration.getProfileImagesFolder(), name);
+        Assertions.assertFalse(variantOf(32, name).exists());
+        Assertions.assertFalse(variantOf(64, name).exists());
+    }
+}
@@ -2,6 +2,7 @@ package com.discussion.forum.service;
 
 
 import com.discussion.forum.configuration.AppConfiguration;
+import com.discussion.forum.configuration.StorageLayout;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -9,16 +10,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Random;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -32,6 +40,12 @@ public class StaticResourceTest {
     @Autowired
     MockMvc mockMvc;
 
+    @Autowired
+    TestRestTemplate testRestTemplate;
+
+    @Autowired
+    StorageLayout storageLayout;
+
     @AfterEach
     public void cleanup() throws IOException {
         FileUtils.cleanDirectory(new File(appConfiguration.getFullProfileImagesPath()));
@@ -85,6 +99,15 @@ public class StaticResourceTest {
 
     }
 
+    @Test
+    public void getStaticFile_whenImageIsStoredInShardedFolder_receiveOk() throws Exception {
+        String fileName = "3f2a9c0d1e";
+        File source = new ClassPathResource("profile.png").getFile();
+        FileUtils.copyFile(source, storageLayout.path(appConfiguration.getAttachmentsFolder(), fileName).toFile());
+
+        mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/" + fileName)).andExpect(status().isOk());
+    }
+
     @Test
     public void getStaticFile_whenImageDoesNotExist_receiveNotFound() throws Exception {
         mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/there-is-no-such-image.png"))
@@ -102,4 +125,125 @@ public class StaticResourceTest {
         Assertions.assertTrue(cacheControl.toLowerCase().contains("max-age=31536000"));
 
     }
+
+    @Test
+    public void getStaticFile_whenSizeRequestedAndVariantExists_receiveVariant() throws Exception {
+        String fileName = "profile-picture.png";
+        File source = new ClassPathResource("profile.png").getFile();
+        FileUtils.copyFile(source, new File(appConfiguration.getFullProfileImagesPath() + "/" + fileName));
+        File variant = storageLayout.path(appConfiguration.getProfileImagesFolder() + "/variants/64", fileName).toFile();
+        FileUtils.writeStringToFile(variant, "variant", StandardCharsets.UTF_8);
+
+        MvcResult result = mockMvc.perform(get("/images/" + appConfiguration.getProfileImagesFolder() + "/" + fileName)
+                .param("size", "64")).andExpect(status().isOk()).andReturn();
+        Assertions.assertEquals("variant", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void getStaticFile_whenSizeRequestedAndVariantIsMissing_receiveOriginal() throws Exception {
+        String fileName = "profile-picture.png";
+        File source = new ClassPathResource("profile.png").getFile();
+        FileUtils.copyFile(source, new File(appConfiguration.getFullProfileImagesPath() + "/" + fileName));
+
+        MvcResult result = mockMvc.perform(get("/images/" + appConfiguration.getProfileImagesFolder() + "/" + fileName)
+                .param("size", "32"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + fileName + "\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn();
+        Assertions.assertEquals(source.length(), result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void getStaticFile_whenSizeRequestedWithOriginalEtag_receiveOriginalAgain() throws Exception {
+        String fileName = "profile-picture.png";
+        File source = new ClassPathResource("profile.png").getFile();
+        FileUtils.copyFile(source, new File(appConfiguration.getFullProfileImagesPath() + "/" + fileName));
+
+        mockMvc.perform(get("/images/" + appConfiguration.getProfileImagesFolder() + "/" + fileName)
+                .param("size", "32")
+                .header("If-None-Match", "\"" + fileName + "\""))
+                .andExpect(status().isOk());
+    }
+
+    private File storeAttachment(String fileName) throws IOException {
+        File source = new ClassPathResource("profile.png").getFile();
+        FileUtils.copyFile(source, storageLayout.path(appConfiguration.getAttachmentsFolder(), fileName).toFile());
+        return source;
+    }
+
+    @Test
+    public void getStaticFile_whenImageExists_receiveStrongEtagFromName() throws Exception {
+        storeAttachment("abcdef12");
+        mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abcdef12\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"));
+    }
+
+    @Test
+    public void getStaticFile_whenIfNoneMatchHasEtag_receiveNotModifiedWithoutFile() throws Exception {
+        mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12")
+                .header("If-None-Match", "\"abcdef12\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void getStaticFile_whenRangeRequested_receivePartialContent() throws Exception {
+        File source = storeAttachment("abcdef12");
+        byte[] original = FileUtils.readFileToByteArray(source);
+        MvcResult result = mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12")
+                .header("Range", "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-19/" + original.length))
+                .andReturn();
+        Assertions.assertArrayEquals(Arrays.copyOfRange(original, 10, 20), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void getStaticFile_whenSuffixRangeRequested_receiveLastBytes() throws Exception {
+        File source = storeAttachment("abcdef12");
+        byte[] original = FileUtils.readFileToByteArray(source);
+        MvcResult result = mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12")
+                .header("Range", "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+        Assertions.assertArrayEquals(Arrays.copyOfRange(original, original.length - 5, original.length),
+                result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void getStaticFile_whenRangeIsBeyondFile_receiveRangeNotSatisfiable() throws Exception {
+        File source = storeAttachment("abcdef12");
+        mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12")
+                .header("Range", "bytes=" + source.length() + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + source.length()));
+    }
+
+    @Test
+    public void getStaticFile_whenIfRangeDoesNotMatch_receiveWholeFile() throws Exception {
+        File source = storeAttachment("abcdef12");
+        MvcResult result = mockMvc.perform(get("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12")
+                .header("Range", "bytes=0-9")
+                .header("If-Range", "\"other\""))
+                .andExpect(status().isOk())
+                .andReturn();
+        Assertions.assertEquals(source.length(), result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void getStaticFile_whenFolderIsNotAnImageFolder_receiveNotFound() throws Exception {
+        mockMvc.perform(get("/images/variants/abcdef12")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getStaticFile_whenLargeImageServedByContainer_receiveWholeFile() throws Exception {
+        byte[] content = new byte[256 * 1024];
+        new Random(1).nextBytes(content);
+        FileUtils.writeByteArrayToFile(storageLayout.path(appConfiguration.getAttachmentsFolder(), "abcdef12").toFile(), content);
+        ResponseEntity<byte[]> response = testRestTemplate.getForEntity("/images/" + appConfiguration.getAttachmentsFolder() + "/abcdef12", byte[].class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertArrayEquals(content, response.getBody());
+    }
 }
@@ -0,0 +1,70 @@
+package com.discussion.forum.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tika.Tika;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class MagicBytesTest {
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void detect_whenHeaderHasKnownSignature_returnsSameTypeAsTika() {
+        Tika tika = new Tika();
+        List<byte[]> headers = List.of(
+                bytes(0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d),
+                bytes(0xff, 0xd8, 0xff, 0xe0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1),
+                ascii("GIF89a\u0001\u0000\u0001\u0000"),
+                ascii("GIF87a\u0001\u0000\u0001\u0000"),
+                ascii("RIFF\u0000\u0000\u0000\u0000WEBPVP8 "),
+                bytes('I', 'I', '*', 0, 8, 0, 0, 0),
+                bytes('M', 'M', 0, '*', 0, 0, 0, 8),
+                ascii("%PDF-1.4\n%âã"),
+                bytes(0xd0, 0xcf, 0x11, 0xe0, 0xa1, 0xb1, 0x1a, 0xe1, 0, 0, 0, 0));
+        for (byte[] header : headers) {
+            Assertions.assertEquals(tika.detect(header), MagicBytes.detect(header));
+        }
+    }
+
+    @Test
+    public void detect_whenFileIsTestImage_returnsImageType() throws IOException {
+        Assertions.assertEquals("image/png", MagicBytes.detect(FileUtils.readFileToByteArray(new ClassPathResource("test-png.png").getFile())));
+        Assertions.assertEquals("image/jpeg", MagicBytes.detect(FileUtils.readFileToByteArray(new ClassPathResource("test-jpg.jpg").getFile())));
+        Assertions.assertEquals("image/gif", MagicBytes.detect(FileUtils.readFileToByteArray(new ClassPathResource("test-gif.gif").getFile())));
+    }
+
+    @Test
+    public void detect_whenSignatureIsUnknown_returnsNull() {
+        Assertions.assertNull(MagicBytes.detect(ascii("plain text file")));
+        Assertions.assertNull(MagicBytes.detect(ascii("PK\u0003\u0004")));
+    }
+
+    @Test
+    public void detect_whenHeaderIsShorterThanSignature_returnsNull() {
+        Assertions.assertNull(MagicBytes.detect(bytes(0x89, 'P', 'N')));
+        Assertions.assertNull(MagicBytes.detect(ascii("RIFF\u0000\u0000\u0000\u0000WE")));
+        Assertions.assertNull(MagicBytes.detect(new byte[0]));
+    }
+
+    @Test
+    public void detect_whenLengthIsGiven_ignoresBytesBeyondIt() {
+        byte[] buffer = bytes(0xff, 0xd8, 0xff, 0xe0);
+        Assertions.assertNull(MagicBytes.detect(buffer, 2));
+    }
+}
@@ -0,0 +1,35 @@
+package com.discussion.forum.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement Hibernate prepares. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+
+    public static List<String> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+}